@@ -0,0 +1,77 @@
+package com.spring_mvc_object_mapper.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file with a stored baseline and exits with status 1 when any benchmark got slower by
+ * more than the allowed fraction, beyond the error margins of both runs. Throughput scores are better higher, every
+ * other mode better lower. Benchmarks missing from either file are listed but not judged.
+ * <p>
+ * Arguments: the result file, the baseline file, and the allowed regression, e.g. {@code 0.10} for 10%.
+ */
+public final class BaselineComparison {
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path result = Path.of(args[0]);
+        Path baseline = Path.of(args[1]);
+        double maxRegression = Double.parseDouble(args[2]);
+        if (!Files.exists(baseline)) {
+            System.out.printf("No baseline at %s; copy %s there to record one%n", baseline, result);
+            return;
+        }
+        Map<String, Score> current = read(result);
+        Map<String, Score> previous = read(baseline);
+        int regressions = 0;
+        System.out.printf("%-72s %14s %14s %8s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = previous.remove(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-72s %14s %14.3f %8s  %s%n", entry.getKey(), "-", now.score(), "", now.unit());
+                continue;
+            }
+            double change = now.score() / before.score() - 1;
+            double slowdown = now.higherIsBetter() ? -change : change;
+            boolean regressed = slowdown > maxRegression
+                    && Math.abs(now.score() - before.score()) > now.error() + before.error();
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-72s %14.3f %14.3f %+7.1f%%  %s%s%n", entry.getKey(), before.score(), now.score(),
+                    change * 100, now.unit(), regressed ? "  REGRESSION" : "");
+        }
+        previous.keySet().forEach(key -> System.out.printf("%-72s %14s%n", key, "not run"));
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, maxRegression * 100);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new TreeMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            Map<String, String> params = new TreeMap<>();
+            run.path("params").fields()
+                    .forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            String name = run.get("benchmark").asText() + (params.isEmpty() ? "" : " " + params);
+            JsonNode metric = run.get("primaryMetric");
+            double error = metric.path("scoreError").asDouble();
+            scores.put(name, new Score(metric.get("score").asDouble(), Double.isNaN(error) ? 0 : error,
+                    metric.get("scoreUnit").asText(), "thrpt".equals(run.get("mode").asText())));
+        }
+        return scores;
+    }
+
+    private record Score(double score, double error, String unit, boolean higherIsBetter) {
+    }
+}
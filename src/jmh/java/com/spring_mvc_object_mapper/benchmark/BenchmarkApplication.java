@@ -0,0 +1,50 @@
+package com.spring_mvc_object_mapper.benchmark;
+
+import com.spring_mvc_object_mapper.SpringMvcObjectMapperApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Boots the application with the H2 test profile on a database of its own, loaded with the test data plus products
+ * up to {@code productCount}, all stocked deeply enough never to run out during a run. SQL logging and query budgets
+ * are off so they do not weigh on the measurements.
+ */
+final class BenchmarkApplication {
+
+    static final String AUTHORIZATION = "Basic dXNlcjp1c2Vy";
+    private static final int STOCK = 1_000_000_000;
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(int productCount) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringMvcObjectMapperApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--query-budget.mode=off",
+                        "--logging.level.root=WARN");
+        DataSource dataSource = context.getBean(DataSource.class);
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"), new ClassPathResource("data.sql"))
+                .execute(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List<Object[]> products = new ArrayList<>();
+        for (long id = 4; id <= productCount; id++) {
+            products.add(new Object[]{id, "Product " + id});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (product_id, name, description, price, quantity_in_stock) "
+                + "VALUES (?, ?, 'This is a test product', 10.00, 0)", products);
+        jdbcTemplate.update("UPDATE products SET quantity_in_stock = ?", STOCK);
+        jdbcTemplate.execute("ALTER SEQUENCE products_seq RESTART WITH " + Math.max(4, productCount + 1));
+        return context;
+    }
+}
@@ -0,0 +1,66 @@
+package com.spring_mvc_object_mapper.benchmark;
+
+import com.spring_mvc_object_mapper.entity.Customer;
+import com.spring_mvc_object_mapper.entity.Order;
+import com.spring_mvc_object_mapper.entity.Product;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entities shaped like the test data.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static List<Customer> customers(int count) {
+        List<Customer> customers = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            customers.add(customer(id));
+        }
+        return customers;
+    }
+
+    static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            Product product = new Product();
+            product.setProductId(id);
+            product.setName("Product " + id);
+            product.setDescription("This is a test product");
+            product.setPrice(10.0 + id);
+            product.setQuantityInStock(100);
+            product.setVersion(0L);
+            products.add(product);
+        }
+        return products;
+    }
+
+    static Order order(int productCount) {
+        List<Product> products = products(productCount);
+        Order order = new Order();
+        order.setOrderId(1L);
+        order.setCustomer(customer(1));
+        order.setProducts(products);
+        order.setOrderDate(LocalDate.of(2024, 1, 1));
+        order.setShippingAddress("123 Main St, Anytown USA");
+        order.setTotalPrice(products.stream().mapToDouble(Product::getPrice).sum());
+        order.setOrderStatus("Pending");
+        order.setVersion(0L);
+        return order;
+    }
+
+    private static Customer customer(long id) {
+        Customer customer = new Customer();
+        customer.setCustomerId(id);
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setEmail("johndoe" + id + "@example.com");
+        customer.setContactNumber("1234567890");
+        customer.setVersion(0L);
+        return customer;
+    }
+}
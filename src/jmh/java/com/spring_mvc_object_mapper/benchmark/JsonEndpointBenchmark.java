@@ -0,0 +1,77 @@
+package com.spring_mvc_object_mapper.benchmark;
+
+import jakarta.servlet.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.context.AbstractSecurityWebApplicationInitializer;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Fetches the {@code /json} representation of the test data's customer, product and order through MockMvc, behind the
+ * security filter chain with Basic credentials, with and without gzip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonEndpointBenchmark {
+
+    @Param({"/api/customers/1/json", "/api/products/1/json", "/api/orders/1/json"})
+    public String path;
+
+    @Param({"identity", "gzip"})
+    public String encoding;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.start(3);
+        Filter securityFilterChain = context.getBean(AbstractSecurityWebApplicationInitializer.DEFAULT_FILTER_NAME,
+                Filter.class);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .addFilters(securityFilterChain)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] fetch() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get(path)
+                        .header(HttpHeaders.AUTHORIZATION, BenchmarkApplication.AUTHORIZATION)
+                        .header(HttpHeaders.ACCEPT_ENCODING, encoding))
+                .andReturn()
+                .getResponse();
+        if (response.getStatus() != 200) {
+            throw new IllegalStateException(path + " answered " + response.getStatus());
+        }
+        return response.getContentAsByteArray();
+    }
+}
@@ -0,0 +1,112 @@
+package com.spring_mvc_object_mapper.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.spring_mvc_object_mapper.entity.Customer;
+import com.spring_mvc_object_mapper.entity.Order;
+import com.spring_mvc_object_mapper.entity.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes and reads lists of {@code size} customers and products, and an order of {@code size} products, with the
+ * application's own {@link ObjectMapper} bean.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonMappingBenchmark {
+
+    @Param({"1", "20", "200"})
+    public int size;
+
+    private ConfigurableApplicationContext context;
+    private List<Customer> customers;
+    private List<Product> products;
+    private Order order;
+    private ObjectWriter customersWriter;
+    private ObjectWriter productsWriter;
+    private ObjectWriter orderWriter;
+    private ObjectReader customersReader;
+    private ObjectReader productsReader;
+    private ObjectReader orderReader;
+    private byte[] customersJson;
+    private byte[] productsJson;
+    private byte[] orderJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkApplication.start(3);
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        JavaType customerList = objectMapper.getTypeFactory().constructCollectionType(List.class, Customer.class);
+        JavaType productList = objectMapper.getTypeFactory().constructCollectionType(List.class, Product.class);
+        customers = BenchmarkData.customers(size);
+        products = BenchmarkData.products(size);
+        order = BenchmarkData.order(size);
+        customersWriter = objectMapper.writerFor(customerList);
+        productsWriter = objectMapper.writerFor(productList);
+        orderWriter = objectMapper.writerFor(Order.class);
+        customersReader = objectMapper.readerFor(customerList);
+        productsReader = objectMapper.readerFor(productList);
+        orderReader = objectMapper.readerFor(Order.class);
+        customersJson = customersWriter.writeValueAsBytes(customers);
+        productsJson = productsWriter.writeValueAsBytes(products);
+        orderJson = orderWriter.writeValueAsBytes(order);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] writeCustomers() throws IOException {
+        return customersWriter.writeValueAsBytes(customers);
+    }
+
+    @Benchmark
+    public byte[] writeProducts() throws IOException {
+        return productsWriter.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] writeOrder() throws IOException {
+        return orderWriter.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public List<Customer> readCustomers() throws IOException {
+        return customersReader.readValue(customersJson);
+    }
+
+    @Benchmark
+    public List<Product> readProducts() throws IOException {
+        return productsReader.readValue(productsJson);
+    }
+
+    @Benchmark
+    public Order readOrder() throws IOException {
+        return orderReader.readValue(orderJson);
+    }
+}
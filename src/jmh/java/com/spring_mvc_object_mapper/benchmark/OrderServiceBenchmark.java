@@ -0,0 +1,74 @@
+package com.spring_mvc_object_mapper.benchmark;
+
+import com.spring_mvc_object_mapper.entity.Customer;
+import com.spring_mvc_object_mapper.entity.Order;
+import com.spring_mvc_object_mapper.entity.Product;
+import com.spring_mvc_object_mapper.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Places orders of {@code productCount} distinct products for customer 1 through {@link OrderService#createOrder},
+ * in its own transaction, against the in-process H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    @Param({"1", "5", "20"})
+    public int productCount;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private Customer customer;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.start(productCount);
+        orderService = context.getBean(OrderService.class);
+        customer = new Customer();
+        customer.setCustomerId(1L);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Order createOrder() {
+        List<Product> products = new ArrayList<>(productCount);
+        for (long id = 1; id <= productCount; id++) {
+            Product product = new Product();
+            product.setProductId(id);
+            products.add(product);
+        }
+        Order order = new Order();
+        order.setOrderDate(LocalDate.of(2024, 1, 1));
+        order.setShippingAddress("123 Main St, Anytown USA");
+        order.setTotalPrice(0.0);
+        order.setOrderStatus("Pending");
+        return orderService.createOrder(order, customer, products);
+    }
+}
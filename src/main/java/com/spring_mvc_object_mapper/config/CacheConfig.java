@@ -0,0 +1,45 @@
+package com.spring_mvc_object_mapper.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String PRODUCTS = "products";
+    public static final String CUSTOMERS = "customers";
+
+    /**
+     * Bounded Caffeine caches configured by {@code spring.cache.caffeine.spec}. Puts and evictions made inside
+     * a transaction are applied only after it commits, so a rolled-back write never reaches the cache. Entities are
+     * cached as detached copies, see {@link DetachedCopyCache}.
+     */
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name,
+                                               com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new DetachedCopyCache(name, cache, isAllowNullValues());
+            }
+        };
+        String spec = cacheProperties.getCaffeine().getSpec();
+        if (StringUtils.hasText(spec)) {
+            cacheManager.setCacheSpecification(spec);
+        }
+        cacheManager.setCacheNames(List.of(PRODUCTS, CUSTOMERS));
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,129 @@
+package com.spring_mvc_object_mapper.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the username and password pairs that {@code delegate} accepted, for up to {@code ttl}, so a client sending
+ * the same Basic credentials on every request pays for the password hash check only once in that time. Entries are
+ * keyed by an HMAC-SHA256 of the pair under a key generated at startup, so no password is held in the cache, and are
+ * all dropped whenever a user changes; credentials checked while that happens are not cached. Rejected credentials are
+ * never cached and go to {@code delegate} every time.
+ * <p>
+ * Checks made by {@code delegate} are timed under {@code security.credentials.verify} and the ones answered from the
+ * cache counted under {@code security.credentials.verify.avoided}, so their product is the hashing time saved.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider,
+        ApplicationListener<PayloadApplicationEvent<PublishingUserDetailsManager.UsersChangedEvent>> {
+
+    static final String CACHE_NAME = "verifiedCredentials";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final AuthenticationProvider delegate;
+    private final Cache<ByteBuffer, Authentication> verified;
+    private final Mac mac;
+    private final Timer verifications;
+    private final Counter avoided;
+    private final AtomicLong generation = new AtomicLong();
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, Duration ttl, long maxSize,
+                                         MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.verified = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        try {
+            this.mac = Mac.getInstance(HMAC_ALGORITHM);
+            this.mac.init(new SecretKeySpec(key, HMAC_ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " is not available", e);
+        }
+        this.verifications = Timer.builder("security.credentials.verify")
+                .description("Password checks made against the user store")
+                .register(meterRegistry);
+        this.avoided = Counter.builder("security.credentials.verify.avoided")
+                .description("Password checks answered from the verified-credentials cache")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, CACHE_NAME);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication instanceof UsernamePasswordAuthenticationToken)
+                || !(authentication.getCredentials() instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+        ByteBuffer key = key(authentication.getName(), password);
+        Authentication cached = verified.getIfPresent(key);
+        if (cached != null) {
+            avoided.increment();
+            UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                    cached.getPrincipal(), null, cached.getAuthorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+        long checkedGeneration = generation.get();
+        Authentication result = verifications.record(() -> delegate.authenticate(authentication));
+        if (result != null && result.isAuthenticated() && generation.get() == checkedGeneration) {
+            verified.put(key, result);
+            if (generation.get() != checkedGeneration) {
+                // Users changed between the check and the put, and that invalidation may have run before the put.
+                verified.invalidate(key);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    @Override
+    public void onApplicationEvent(PayloadApplicationEvent<PublishingUserDetailsManager.UsersChangedEvent> event) {
+        invalidateAll();
+    }
+
+    /**
+     * Drops every verified pair. The generation moves first, so a check already under way does not cache its result.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        verified.invalidateAll();
+    }
+
+    private ByteBuffer key(String username, String password) {
+        Mac hmac;
+        try {
+            hmac = (Mac) mac.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+        hmac.update(username.getBytes(StandardCharsets.UTF_8));
+        hmac.update((byte) 0);
+        return ByteBuffer.wrap(hmac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+    }
+}
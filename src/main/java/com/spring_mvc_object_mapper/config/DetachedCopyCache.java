@@ -0,0 +1,40 @@
+package com.spring_mvc_object_mapper.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.spring_mvc_object_mapper.entity.Customer;
+import com.spring_mvc_object_mapper.entity.Product;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+/**
+ * A Caffeine cache that keeps its own copy of each product and customer and hands every reader a fresh one, so an
+ * entity put in the cache stays attached to, and mutable by, only the transaction that loaded it, and no two requests
+ * ever share an instance.
+ */
+class DetachedCopyCache extends CaffeineCache {
+
+    DetachedCopyCache(String name, Cache<Object, Object> cache, boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+    }
+
+    @Override
+    protected Object toStoreValue(Object userValue) {
+        return super.toStoreValue(copyOf(userValue));
+    }
+
+    @Override
+    protected Object fromStoreValue(Object storeValue) {
+        return copyOf(super.fromStoreValue(storeValue));
+    }
+
+    static Object copyOf(Object value) {
+        if (value instanceof Product product) {
+            return new Product(product.getProductId(), product.getName(), product.getDescription(),
+                    product.getPrice(), product.getQuantityInStock(), product.getVersion());
+        }
+        if (value instanceof Customer customer) {
+            return new Customer(customer.getCustomerId(), customer.getFirstName(), customer.getLastName(),
+                    customer.getEmail(), customer.getContactNumber(), customer.getVersion());
+        }
+        return value;
+    }
+}
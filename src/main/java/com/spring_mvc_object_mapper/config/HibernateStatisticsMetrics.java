@@ -0,0 +1,73 @@
+package com.spring_mvc_object_mapper.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.stat.Statistics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Session-factory-wide Hibernate statistics, under the names Micrometer's {@code hibernate-micrometer} binder uses.
+ * Every value is read from {@link Statistics} when scraped, and stays 0 unless
+ * {@code hibernate.generate_statistics} is on.
+ */
+public class HibernateStatisticsMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsMetrics(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "hibernate.sessions.open", "Sessions opened", Statistics::getSessionOpenCount);
+        counter(registry, "hibernate.sessions.closed", "Sessions closed", Statistics::getSessionCloseCount);
+        counter(registry, "hibernate.connections.obtained", "JDBC connections obtained",
+                Statistics::getConnectCount);
+        counter(registry, "hibernate.flushes", "Session flushes", Statistics::getFlushCount);
+        counter(registry, "hibernate.optimistic.failures", "Optimistic lock failures",
+                Statistics::getOptimisticFailureCount);
+        FunctionCounter.builder("hibernate.transactions", statistics, s -> s.getSuccessfulTransactionCount())
+                .description("Transactions by outcome")
+                .tag("result", "success")
+                .register(registry);
+        FunctionCounter.builder("hibernate.transactions", statistics,
+                        s -> s.getTransactionCount() - s.getSuccessfulTransactionCount())
+                .description("Transactions by outcome")
+                .tag("result", "failure")
+                .register(registry);
+        FunctionCounter.builder("hibernate.statements", statistics, s -> s.getPrepareStatementCount())
+                .description("JDBC statements prepared or closed")
+                .tag("status", "prepared")
+                .register(registry);
+        FunctionCounter.builder("hibernate.statements", statistics, s -> s.getCloseStatementCount())
+                .description("JDBC statements prepared or closed")
+                .tag("status", "closed")
+                .register(registry);
+        counter(registry, "hibernate.entities.loads", "Entities loaded", Statistics::getEntityLoadCount);
+        counter(registry, "hibernate.entities.fetches", "Entities fetched by a separate select",
+                Statistics::getEntityFetchCount);
+        counter(registry, "hibernate.entities.inserts", "Entities inserted", Statistics::getEntityInsertCount);
+        counter(registry, "hibernate.entities.updates", "Entities updated", Statistics::getEntityUpdateCount);
+        counter(registry, "hibernate.entities.deletes", "Entities deleted", Statistics::getEntityDeleteCount);
+        counter(registry, "hibernate.collections.loads", "Collections loaded", Statistics::getCollectionLoadCount);
+        counter(registry, "hibernate.collections.fetches", "Collections fetched by a separate select",
+                Statistics::getCollectionFetchCount);
+        counter(registry, "hibernate.query.executions", "Queries executed", Statistics::getQueryExecutionCount);
+        TimeGauge.builder("hibernate.query.executions.max", statistics, TimeUnit.MILLISECONDS,
+                        Statistics::getQueryExecutionMaxTime)
+                .description("Slowest query execution time")
+                .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String name, String description,
+                         ToDoubleFunction<Statistics> value) {
+        FunctionCounter.builder(name, statistics, value)
+                .description(description)
+                .register(registry);
+    }
+}
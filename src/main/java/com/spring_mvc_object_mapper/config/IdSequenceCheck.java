@@ -0,0 +1,64 @@
+package com.spring_mvc_object_mapper.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.util.List;
+
+/**
+ * Refuses to start against a PostgreSQL database whose id sequences would hand out ids already taken, as they do
+ * right after moving from IDENTITY columns: {@code db/identity-to-sequence.sql} moves them past the highest ids.
+ * Runs once every singleton, and so the schema update, is ready and before the web server accepts requests.
+ * Other databases are not checked.
+ */
+@Component
+public class IdSequenceCheck implements SmartInitializingSingleton {
+
+    private static final String MIGRATION = "db/identity-to-sequence.sql";
+
+    private static final List<IdSequence> SEQUENCES = List.of(
+            new IdSequence("customers_seq", "customers", "customer_id"),
+            new IdSequence("products_seq", "products", "product_id"),
+            new IdSequence("orders_seq", "orders", "order_id"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceCheck(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!isPostgreSql()) {
+            return;
+        }
+        for (IdSequence sequence : SEQUENCES) {
+            long maxId = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(MAX(" + sequence.column() + "), 0) FROM " + sequence.table(), Long.class);
+            long nextId = jdbcTemplate.queryForObject("SELECT CASE WHEN s.is_called THEN s.last_value + q.increment_by"
+                    + " ELSE s.last_value END FROM " + sequence.name() + " s, pg_sequences q"
+                    + " WHERE q.schemaname = current_schema() AND q.sequencename = ?", Long.class, sequence.name());
+            if (nextId <= maxId) {
+                throw new IllegalStateException("Sequence " + sequence.name() + " would reissue " + sequence.table()
+                        + " ids up to " + maxId + "; run " + MIGRATION + " against the database before starting");
+            }
+        }
+    }
+
+    private boolean isPostgreSql() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equals(product);
+        } catch (MetaDataAccessException e) {
+            return false;
+        }
+    }
+
+    private record IdSequence(String name, String table, String column) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.spring_mvc_object_mapper.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.AnnotationIntrospectorPair;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.spring_mvc_object_mapper.SpringMvcObjectMapperApplication;
+import com.spring_mvc_object_mapper.dto.FieldSet;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class JacksonConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders;
+    private final MeterRegistry meterRegistry;
+
+    public JacksonConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders, MeterRegistry meterRegistry) {
+        this.objectMapperBuilders = objectMapperBuilders;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Replaces reflective getter, setter and constructor calls with generated lambdas. Spring Boot registers
+     * every {@link Module} bean with the application's {@code ObjectMapper}, so the switch covers all endpoints.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "jackson.blackbird.enabled", havingValue = "true")
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * Puts the application's own classes behind the {@link FieldSet#FILTER_ID} property filter, which serializes
+     * every property unless a response carries the filters of a {@code ?fields=} selection. Applied to the builder,
+     * so the JSON, Smile and CBOR mappers all honour it.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldSetFilterCustomizer() {
+        String applicationPackage = SpringMvcObjectMapperApplication.class.getPackageName();
+        NopAnnotationIntrospector filterIds = new NopAnnotationIntrospector() {
+            @Override
+            public Object findFilterId(Annotated annotated) {
+                if (annotated instanceof AnnotatedClass type
+                        && type.getRawType().getPackageName().startsWith(applicationPackage)) {
+                    return FieldSet.FILTER_ID;
+                }
+                return null;
+            }
+        };
+        return builder -> builder
+                .annotationIntrospector(existing -> AnnotationIntrospectorPair.pair(
+                        existing != null ? existing : new JacksonAnnotationIntrospector(), filterIds))
+                .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+
+    /**
+     * Serves Smile ({@code application/x-jackson-smile}) and CBOR ({@code application/cbor}) bodies next to JSON.
+     * Both mappers come from Spring Boot's builder, given the format's factory, and so share the modules, filters and
+     * {@code spring.jackson.*} settings of the JSON mapper. Spring MVC registers its own, unconfigured converters for
+     * both formats when their Jackson modules are on the classpath; they are replaced in place, which keeps JSON first
+     * for clients that accept any type. The JSON converter is swapped, with the same mapper, for one that meters what
+     * it writes.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i).getClass() == MappingJackson2HttpMessageConverter.class) {
+                converters.set(i, new MeteredJsonHttpMessageConverter(
+                        ((MappingJackson2HttpMessageConverter) converters.get(i)).getObjectMapper(), meterRegistry));
+            }
+        }
+        MappingJackson2SmileHttpMessageConverter smile = new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilders.getObject().factory(new SmileFactory()).build());
+        MappingJackson2CborHttpMessageConverter cbor = new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilders.getObject().factory(new CBORFactory()).build());
+        replaceOrAdd(converters, MappingJackson2SmileHttpMessageConverter.class, smile);
+        replaceOrAdd(converters, MappingJackson2CborHttpMessageConverter.class, cbor);
+    }
+
+    private static void replaceOrAdd(List<HttpMessageConverter<?>> converters,
+                                     Class<? extends HttpMessageConverter<?>> type, HttpMessageConverter<?> converter) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (type.isInstance(converters.get(i))) {
+                converters.set(i, converter);
+                return;
+            }
+        }
+        converters.add(converter);
+    }
+}
@@ -0,0 +1,66 @@
+package com.spring_mvc_object_mapper.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Metrics Spring Boot does not bind on its own: SQL statements per request, held to a query budget, and Hibernate's
+ * statistics. Request, service, repository, connection-pool and JSON timings are registered where those components
+ * are configured.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    /**
+     * Timer of every public method of the {@code @Timed} services, tagged with class and method.
+     */
+    public static final String SERVICE_CALLS = "service.calls";
+
+    private final SqlStatementCounter statementCounter = new SqlStatementCounter();
+    private final MeterRegistry meterRegistry;
+    private final SqlStatementInterceptor.Mode queryBudgetMode;
+    private final int maxStatements;
+    private final int maxRepeats;
+
+    /**
+     * @param queryBudgetMode {@code off}, {@code log} or {@code fail}, see {@link SqlStatementInterceptor}
+     */
+    public MetricsConfig(MeterRegistry meterRegistry,
+                         @Value("${query-budget.mode:log}") SqlStatementInterceptor.Mode queryBudgetMode,
+                         @Value("${query-budget.max-statements:20}") int maxStatements,
+                         @Value("${query-budget.max-repeats:5}") int maxRepeats) {
+        this.meterRegistry = meterRegistry;
+        this.queryBudgetMode = queryBudgetMode;
+        this.maxStatements = maxStatements;
+        this.maxRepeats = maxRepeats;
+    }
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return statementCounter;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    @Bean
+    public HibernateStatisticsMetrics hibernateStatisticsMetrics(EntityManagerFactory entityManagerFactory) {
+        return new HibernateStatisticsMetrics(entityManagerFactory.unwrap(SessionFactory.class).getStatistics());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlStatementInterceptor(statementCounter, meterRegistry, queryBudgetMode,
+                maxStatements, maxRepeats));
+    }
+}
@@ -0,0 +1,58 @@
+package com.spring_mvc_object_mapper.config;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+/**
+ * An {@link InMemoryUserDetailsManager} that publishes a {@link UsersChangedEvent} after every change to its users,
+ * including the password upgrades made on login.
+ */
+public class PublishingUserDetailsManager extends InMemoryUserDetailsManager {
+
+    private final ApplicationEventPublisher events;
+
+    public PublishingUserDetailsManager(ApplicationEventPublisher events) {
+        this.events = events;
+    }
+
+    @Override
+    public void createUser(UserDetails user) {
+        super.createUser(user);
+        events.publishEvent(new UsersChangedEvent(user.getUsername()));
+    }
+
+    @Override
+    public void updateUser(UserDetails user) {
+        super.updateUser(user);
+        events.publishEvent(new UsersChangedEvent(user.getUsername()));
+    }
+
+    @Override
+    public void deleteUser(String username) {
+        super.deleteUser(username);
+        events.publishEvent(new UsersChangedEvent(username));
+    }
+
+    @Override
+    public void changePassword(String oldPassword, String newPassword) {
+        super.changePassword(oldPassword, newPassword);
+        Authentication current = SecurityContextHolder.getContext().getAuthentication();
+        events.publishEvent(new UsersChangedEvent(current != null ? current.getName() : null));
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserDetails updated = super.updatePassword(user, newPassword);
+        events.publishEvent(new UsersChangedEvent(user.getUsername()));
+        return updated;
+    }
+
+    /**
+     * {@code username} is {@code null} when the user could not be identified.
+     */
+    public record UsersChangedEvent(String username) {
+    }
+}
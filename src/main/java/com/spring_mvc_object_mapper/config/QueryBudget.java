@@ -0,0 +1,34 @@
+package com.spring_mvc_object_mapper.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The SQL statement budget of a controller method, or of every method of a controller, in place of the
+ * {@code query-budget.max-statements} and {@code query-budget.max-repeats} defaults.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface QueryBudget {
+
+    /**
+     * Keeps the configured default.
+     */
+    int DEFAULT = -1;
+
+    int UNLIMITED = Integer.MAX_VALUE;
+
+    /**
+     * Statements a request may run in all.
+     */
+    int maxStatements() default DEFAULT;
+
+    /**
+     * Statements of the same shape a request may run; more suggest a query per row of an earlier result.
+     */
+    int maxRepeats() default DEFAULT;
+}
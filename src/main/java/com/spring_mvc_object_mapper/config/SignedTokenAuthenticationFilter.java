@@ -0,0 +1,70 @@
+package com.spring_mvc_object_mapper.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Authenticates requests carrying {@code Authorization: Bearer} with a {@link SignedTokens} token, for that request
+ * only: the context is kept in a request attribute, where its async dispatches find it again, and never in a session.
+ * A token that fails verification ends the request with {@code 401}. Requests matching {@code excluded}, such as the
+ * one that issues tokens, are left to the other authentication mechanisms.
+ */
+public class SignedTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    static final RequestMatcher BEARER_REQUEST = request -> bearerToken(request) != null;
+
+    private static final String PREFIX = SignedTokens.TOKEN_TYPE + " ";
+
+    private final SignedTokens signedTokens;
+    private final RequestMatcher excluded;
+    private final SecurityContextHolderStrategy securityContextHolderStrategy =
+            SecurityContextHolder.getContextHolderStrategy();
+    private final SecurityContextRepository securityContextRepository = new RequestAttributeSecurityContextRepository();
+
+    public SignedTokenAuthenticationFilter(SignedTokens signedTokens, RequestMatcher excluded) {
+        this.signedTokens = signedTokens;
+        this.excluded = excluded;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return excluded.matches(request) || bearerToken(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Authentication authentication = signedTokens.verify(bearerToken(request));
+        if (authentication == null) {
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, SignedTokens.TOKEN_TYPE + " error=\"invalid_token\"");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        SecurityContext context = securityContextHolderStrategy.createEmptyContext();
+        context.setAuthentication(authentication);
+        securityContextHolderStrategy.setContext(context);
+        securityContextRepository.saveContext(context, request, response);
+        chain.doFilter(request, response);
+    }
+
+    private static String bearerToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, PREFIX, 0, PREFIX.length())) {
+            return null;
+        }
+        return header.substring(PREFIX.length()).trim();
+    }
+}
@@ -0,0 +1,108 @@
+package com.spring_mvc_object_mapper.config;
+
+import com.spring_mvc_object_mapper.dto.AccessToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+/**
+ * Short-lived access tokens carrying a username, an expiry and the user's authorities, signed with HMAC-SHA256.
+ * A token is checked against its signature alone, without any user lookup, so it stays valid until it expires even if
+ * the user changes meanwhile. Without a configured secret a random one is generated at startup, which invalidates every
+ * token on restart and is not shared between instances.
+ */
+public class SignedTokens {
+
+    public static final String TOKEN_TYPE = "Bearer";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Mac mac;
+    private final Duration ttl;
+    private final Clock clock;
+
+    /**
+     * @param secret base64 key of at least 32 bytes, or {@code null} or blank for a random one
+     */
+    public SignedTokens(String secret, Duration ttl, Clock clock) {
+        byte[] key;
+        if (secret == null || secret.isBlank()) {
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+        } else {
+            key = Base64.getDecoder().decode(secret);
+            if (key.length < 32) {
+                throw new IllegalArgumentException("The token secret must be at least 32 bytes");
+            }
+        }
+        try {
+            this.mac = Mac.getInstance(HMAC_ALGORITHM);
+            this.mac.init(new SecretKeySpec(key, HMAC_ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " is not available", e);
+        }
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public AccessToken issue(Authentication authentication) {
+        long expiresAt = clock.instant().plus(ttl).getEpochSecond();
+        String authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(","));
+        byte[] payload = String.join("\n", authentication.getName(), Long.toString(expiresAt), authorities)
+                .getBytes(StandardCharsets.UTF_8);
+        String token = ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(payload));
+        return new AccessToken(token, TOKEN_TYPE, ttl.toSeconds());
+    }
+
+    /**
+     * The authentication a token was issued for, or {@code null} if it is malformed, not signed with this key, or
+     * expired. Signatures are compared in constant time.
+     */
+    public Authentication verify(String token) {
+        int separator = token.indexOf('.');
+        if (separator < 0) {
+            return null;
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(token.substring(0, separator));
+            signature = DECODER.decode(token.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(sign(payload), signature)) {
+            return null;
+        }
+        String[] claims = new String(payload, StandardCharsets.UTF_8).split("\n", -1);
+        if (claims.length != 3 || clock.instant().getEpochSecond() >= Long.parseLong(claims[1])) {
+            return null;
+        }
+        return UsernamePasswordAuthenticationToken.authenticated(claims[0], null,
+                AuthorityUtils.commaSeparatedStringToAuthorityList(claims[2]));
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            return ((Mac) mac.clone()).doFinal(payload);
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.spring_mvc_object_mapper.config;
+
+import com.spring_mvc_object_mapper.exception.QueryBudgetExceededException;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between {@link #begin} and {@link #end()}.
+ * Statements run outside such a scope, or through plain JDBC, are not counted.
+ * <p>
+ * Given a {@link Budget}, statements are also grouped by shape, their text with literals and {@code IN} lists
+ * reduced to placeholders, so that the same query run once per row of an earlier result, the N+1 pattern, shows as
+ * one shape repeated N times. A strict budget fails the statement that exceeds it.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final ThreadLocal<Scope> scopes = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        Scope scope = scopes.get();
+        if (scope != null) {
+            scope.add(sql);
+        }
+        return sql;
+    }
+
+    public void begin() {
+        begin(null);
+    }
+
+    /**
+     * Opens a scope on this thread, checked against {@code budget} unless it is {@code null}.
+     */
+    public void begin(Budget budget) {
+        scopes.set(new Scope(budget));
+    }
+
+    /**
+     * Raises the budget of the scope open on this thread by {@code statements}, in all and of any one shape, for a
+     * request whose statement count follows the size of its body rather than the data. Does nothing outside a scope.
+     */
+    public void allow(int statements) {
+        Scope scope = scopes.get();
+        if (scope != null) {
+            scope.allowance += statements;
+        }
+    }
+
+    /**
+     * What was counted since {@link #begin}, or nothing if no scope is open on this thread.
+     */
+    public Statements end() {
+        Scope scope = scopes.get();
+        scopes.remove();
+        return scope != null ? scope.statements() : Statements.NONE;
+    }
+
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    /**
+     * At most {@code maxStatements} statements in all and {@code maxRepeats} of any one shape; {@code strict} fails
+     * the first statement over either limit with a {@link QueryBudgetExceededException}.
+     */
+    public record Budget(int maxStatements, int maxRepeats, boolean strict) {
+
+        int maxStatements(int allowance) {
+            return (int) Math.min(Integer.MAX_VALUE, (long) maxStatements + allowance);
+        }
+
+        int maxRepeats(int allowance) {
+            return (int) Math.min(Integer.MAX_VALUE, (long) maxRepeats + allowance);
+        }
+    }
+
+    /**
+     * {@code count} statements, of which {@code mostRepeatedCount} had the most frequent shape,
+     * {@code mostRepeated}, which is only known under a budget, and {@code allowance} allowed on top of it.
+     */
+    public record Statements(int count, String mostRepeated, int mostRepeatedCount, int allowance) {
+
+        static final Statements NONE = new Statements(0, null, 0, 0);
+
+        public boolean exceeds(Budget budget) {
+            return count > budget.maxStatements(allowance) || mostRepeatedCount > budget.maxRepeats(allowance);
+        }
+    }
+
+    private static final class Scope {
+
+        private final Budget budget;
+        private final Map<String, Integer> shapes;
+        private int count;
+        private String mostRepeated;
+        private int mostRepeatedCount;
+        private int allowance;
+
+        Scope(Budget budget) {
+            this.budget = budget;
+            this.shapes = budget != null ? new HashMap<>() : null;
+        }
+
+        void add(String sql) {
+            count++;
+            if (budget == null) {
+                return;
+            }
+            String shape = shapeOf(sql);
+            int repeats = shapes.merge(shape, 1, Integer::sum);
+            if (repeats > mostRepeatedCount) {
+                mostRepeated = shape;
+                mostRepeatedCount = repeats;
+            }
+            if (budget.strict()) {
+                if (count > budget.maxStatements(allowance)) {
+                    throw new QueryBudgetExceededException("Query budget of " + budget.maxStatements(allowance)
+                            + " statements exceeded by: " + shape);
+                }
+                if (repeats > budget.maxRepeats(allowance)) {
+                    throw new QueryBudgetExceededException("Query budget of " + budget.maxRepeats(allowance)
+                            + " repeats exceeded, possible N+1, by: " + shape);
+                }
+            }
+        }
+
+        Statements statements() {
+            return new Statements(count, mostRepeated, mostRepeatedCount, allowance);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.spring_mvc_object_mapper.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the SQL statements behind each controller call, response rendering included, under
+ * {@code http.server.requests.sql}, tagged like {@code http.server.requests} with the HTTP method and URI pattern.
+ * <p>
+ * Each call is also held to its {@link QueryBudget}, or to the configured defaults. In {@link Mode#LOG} a call over
+ * budget is logged with its most repeated statement when it completes; in {@link Mode#FAIL} the statement that goes
+ * over fails, and the request with it. Either way it is counted under {@code http.server.requests.sql.over.budget}.
+ */
+class SqlStatementInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementInterceptor.class);
+    private static final String BUDGET_ATTRIBUTE = SqlStatementInterceptor.class.getName() + ".budget";
+
+    enum Mode { OFF, LOG, FAIL }
+
+    private final SqlStatementCounter statementCounter;
+    private final MeterRegistry meterRegistry;
+    private final Mode mode;
+    private final int defaultMaxStatements;
+    private final int defaultMaxRepeats;
+    private final Map<HandlerMethod, SqlStatementCounter.Budget> budgets = new ConcurrentHashMap<>();
+
+    SqlStatementInterceptor(SqlStatementCounter statementCounter, MeterRegistry meterRegistry, Mode mode,
+                            int defaultMaxStatements, int defaultMaxRepeats) {
+        this.statementCounter = statementCounter;
+        this.meterRegistry = meterRegistry;
+        this.mode = mode;
+        this.defaultMaxStatements = defaultMaxStatements;
+        this.defaultMaxRepeats = defaultMaxRepeats;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            SqlStatementCounter.Budget budget = mode != Mode.OFF
+                    ? budgets.computeIfAbsent(handlerMethod, this::budgetOf)
+                    : null;
+            request.setAttribute(BUDGET_ATTRIBUTE, budget);
+            statementCounter.begin(budget);
+        }
+        return true;
+    }
+
+    private SqlStatementCounter.Budget budgetOf(HandlerMethod handlerMethod) {
+        QueryBudget annotation = handlerMethod.getMethodAnnotation(QueryBudget.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), QueryBudget.class);
+        }
+        int maxStatements = defaultMaxStatements;
+        int maxRepeats = defaultMaxRepeats;
+        if (annotation != null && annotation.maxStatements() != QueryBudget.DEFAULT) {
+            maxStatements = annotation.maxStatements();
+        }
+        if (annotation != null && annotation.maxRepeats() != QueryBudget.DEFAULT) {
+            maxRepeats = annotation.maxRepeats();
+        }
+        return new SqlStatementCounter.Budget(maxStatements, maxRepeats, mode == Mode.FAIL);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // The async dispatch that completes the request counts again from its own preHandle.
+        statementCounter.end();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (!(handler instanceof HandlerMethod)) {
+            return;
+        }
+        SqlStatementCounter.Statements statements = statementCounter.end();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("http.server.requests.sql")
+                .description("SQL statements Hibernate prepared per request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements.count());
+        if (request.getAttribute(BUDGET_ATTRIBUTE) instanceof SqlStatementCounter.Budget budget
+                && statements.exceeds(budget)) {
+            Counter.builder("http.server.requests.sql.over.budget")
+                    .description("Requests that ran more SQL statements than their query budget")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            if (mode == Mode.LOG) {
+                log.warn("{} {} ran {} SQL statements against a budget of {}, {} of them repeating: {}",
+                        request.getMethod(), uri, statements.count(), budget.maxStatements(statements.allowance()),
+                        statements.mostRepeatedCount(), statements.mostRepeated());
+            }
+        }
+    }
+}
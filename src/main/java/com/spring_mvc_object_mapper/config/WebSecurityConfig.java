@@ -1,29 +1,78 @@
 package com.spring_mvc_object_mapper.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.time.Clock;
+import java.time.Duration;
 
 @Configuration
 public class WebSecurityConfig {
+
+    public static final String TOKEN_PATH = "/api/auth/token";
+
+    /**
+     * Basic authentication, or a signed token from {@value #TOKEN_PATH} sent as a bearer token. Token requests skip
+     * the CSRF check, which only guards credentials a browser sends on its own, and no request creates a session.
+     * Basic credentials are checked by a {@link CachingAuthenticationProvider} over the user store, registered with
+     * this chain rather than as a bean so the user store is not also wired into the global authentication manager.
+     */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(
+            HttpSecurity http, SignedTokens signedTokens, UserDetailsService userDetailsService,
+            ObjectProvider<PasswordEncoder> passwordEncoder, MeterRegistry meterRegistry,
+            ConfigurableApplicationContext context,
+            @Value("${security.credentials-cache.ttl:60s}") Duration ttl,
+            @Value("${security.credentials-cache.max-size:10000}") long maxSize) throws Exception {
+        CachingAuthenticationProvider authenticationProvider = authenticationProvider(userDetailsService,
+                passwordEncoder, meterRegistry, ttl, maxSize);
+        context.addApplicationListener(authenticationProvider);
+        // Without a parent, credentials the provider rejects are not checked again by the global manager.
+        http.getSharedObject(AuthenticationManagerBuilder.class).parentAuthenticationManager(null);
+        RequestMatcher tokenRequest = new AntPathRequestMatcher(TOKEN_PATH, HttpMethod.POST.name());
         http
                 .authorizeHttpRequests((auth) -> auth
                         .requestMatchers("/api/**").hasRole("USER")
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("USER")
                         .anyRequest().permitAll()
                 )
-                .httpBasic();
+                .authenticationProvider(authenticationProvider)
+                .httpBasic(Customizer.withDefaults())
+                .addFilterBefore(new SignedTokenAuthenticationFilter(signedTokens, tokenRequest),
+                        BasicAuthenticationFilter.class)
+                .csrf(csrf -> csrf.ignoringRequestMatchers(tokenRequest, SignedTokenAuthenticationFilter.BEARER_REQUEST))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
         return http.build();
     }
 
     @Bean
-    public UserDetailsService userDetailsService() {
-        var userDetailsManager = new InMemoryUserDetailsManager();
+    public SignedTokens signedTokens(@Value("${security.tokens.secret:}") String secret,
+                                     @Value("${security.tokens.ttl:15m}") Duration ttl) {
+        return new SignedTokens(secret, ttl, Clock.systemUTC());
+    }
+
+    @Bean
+    public UserDetailsService userDetailsService(ApplicationEventPublisher events) {
+        var userDetailsManager = new PublishingUserDetailsManager(events);
         userDetailsManager.createUser(
                 User.withDefaultPasswordEncoder()
                         .username("user")
@@ -33,4 +82,20 @@ public class WebSecurityConfig {
         );
         return userDetailsManager;
     }
-}
\ No newline at end of file
+
+    /**
+     * The usual user-store authentication, with the password check skipped for credentials it accepted within the
+     * last {@code security.credentials-cache.ttl}. A {@link PasswordEncoder} bean replaces the default encoder.
+     */
+    private static CachingAuthenticationProvider authenticationProvider(
+            UserDetailsService userDetailsService, ObjectProvider<PasswordEncoder> passwordEncoder,
+            MeterRegistry meterRegistry, Duration ttl, long maxSize) {
+        DaoAuthenticationProvider userStore = new DaoAuthenticationProvider();
+        userStore.setUserDetailsService(userDetailsService);
+        passwordEncoder.ifAvailable(userStore::setPasswordEncoder);
+        if (userDetailsService instanceof PublishingUserDetailsManager userDetailsManager) {
+            userStore.setUserDetailsPasswordService(userDetailsManager);
+        }
+        return new CachingAuthenticationProvider(userStore, ttl, maxSize, meterRegistry);
+    }
+}
@@ -1,14 +1,23 @@
 package com.spring_mvc_object_mapper.controller;
 
+import com.spring_mvc_object_mapper.config.QueryBudget;
+import com.spring_mvc_object_mapper.dto.FieldSet;
 import com.spring_mvc_object_mapper.entity.Customer;
 import com.spring_mvc_object_mapper.service.CustomerService;
+import com.spring_mvc_object_mapper.service.JsonImport;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -22,23 +31,42 @@ public class CustomerController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Customer>> getAllCustomers() {
-        return ResponseEntity.ok(customerService.getAllCustomers());
+    public ResponseEntity<List<Customer>> getAllCustomers(@RequestParam(defaultValue = "0") Long after,
+                                                          @RequestParam(required = false) Integer limit,
+                                                          @RequestParam(required = false) String fields,
+                                                          ServletWebRequest request) {
+        int pageSize = KeysetPage.pageSize(limit);
+        String eTag = ETags.weak(customerService.getCustomersVersion(after, pageSize), request);
+        if (ETags.checkNotModified(request, eTag)) {
+            return null;
+        }
+        return KeysetPage.of(customerService.getCustomers(after, pageSize, FieldSet.valueOf(fields)), pageSize, Customer::getCustomerId, eTag);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Customer> getCustomerById(@PathVariable Long id) {
-        return ResponseEntity.ok(customerService.getCustomerById(id));
+    public ResponseEntity<Customer> getCustomerById(@PathVariable Long id, ServletWebRequest request) {
+        if (ETags.checkNotModified(request, ETags.strong(customerService.getCustomerVersion(id), request))) {
+            return null;
+        }
+        Customer customer = customerService.getCustomerById(id);
+        return ResponseEntity.ok().eTag(ETags.strong(customer.getVersion(), request)).body(customer);
     }
 
     @GetMapping("/{id}/json")
-    public ResponseEntity<String> getCustomerAsJson(@PathVariable Long id) {
-        return ResponseEntity.ok(customerService.getCustomerAsJson(id));
+    public void getCustomerAsJson(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        long version = customerService.getCustomerVersion(id);
+        customerService.writeCustomerAsJson(id, version, JsonResponseBody.of(request, response));
     }
 
     @PostMapping("/from-json")
-    public ResponseEntity<Customer> createCustomerFromJson(@RequestBody String customerJson) {
-        return ResponseEntity.ok(customerService.createCustomerFromJson(customerJson));
+    @QueryBudget(maxStatements = QueryBudget.UNLIMITED, maxRepeats = QueryBudget.UNLIMITED)
+    public ResponseEntity<?> createCustomerFromJson(InputStream customerJson) {
+        JsonImport<Customer> result = customerService.createCustomersFromJson(customerJson);
+        if (result.isBulk()) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("saved", result.savedCount()));
+        }
+        return ResponseEntity.ok(result.value());
     }
 
     @PostMapping
@@ -0,0 +1,103 @@
+package com.spring_mvc_object_mapper.controller;
+
+import com.spring_mvc_object_mapper.dto.FieldSet;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Entity tags derived from version columns: strong for a single entity, weak for a list page,
+ * whose JSON is only semantically equivalent between two responses with the same tag.
+ * JSON, Smile and CBOR bodies of the same version differ byte for byte, so the tag also names
+ * the format the {@code Accept} header negotiates, and responses vary by that header.
+ * A {@code ?fields=} selection renders a different body again and is named in the tag as well, by a digest of its
+ * canonical form long enough that two selections never share a tag in practice.
+ */
+final class ETags {
+
+    private static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+    private static final int DIGEST_BYTES = 12;
+
+    private ETags() {
+    }
+
+    static String strong(long version, ServletWebRequest request) {
+        return tag(version, request, "");
+    }
+
+    static String weak(long version, ServletWebRequest request) {
+        return "W/" + strong(version, request);
+    }
+
+    /**
+     * Weak tag for a list whose shape also depends on request options other than the format and field selection;
+     * {@code variant} is their normalized form, named in the tag by its digest like a field selection.
+     */
+    static String weak(long version, String variant, ServletWebRequest request) {
+        return "W/" + tag(version, request, "-v" + digest(variant));
+    }
+
+    private static String tag(long version, ServletWebRequest request, String variantSuffix) {
+        return "\"" + Long.toHexString(version) + formatSuffix(request) + fieldsSuffix(request) + variantSuffix + "\"";
+    }
+
+    static boolean checkNotModified(ServletWebRequest request, String eTag) {
+        if (request.getResponse() != null) {
+            request.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return request.checkNotModified(eTag);
+    }
+
+    private static String fieldsSuffix(ServletWebRequest request) {
+        FieldSet fields = FieldSet.valueOf(request.getParameter(FieldSetResponseBodyAdvice.FIELDS_PARAMETER));
+        return fields.isAll() ? "" : "-f" + digest(fields.toString());
+    }
+
+    /**
+     * The first {@value #DIGEST_BYTES} bytes of the SHA-256 of {@code canonical}, URL-safe Base64 encoded.
+     */
+    private static String digest(String canonical) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, DIGEST_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String formatSuffix(ServletWebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return "";
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return "";
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (type.equalsTypeAndSubtype(APPLICATION_SMILE)) {
+                return "-smile";
+            }
+            if (type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                return "-cbor";
+            }
+            if (type.includes(MediaType.APPLICATION_JSON)) {
+                return "";
+            }
+        }
+        return "";
+    }
+}
@@ -0,0 +1,32 @@
+package com.spring_mvc_object_mapper.controller;
+
+import com.spring_mvc_object_mapper.dto.FieldSet;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Applies a {@code ?fields=} selection to every Jackson-rendered response body, in any of the negotiated formats.
+ */
+@ControllerAdvice
+class FieldSetResponseBodyAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    static final String FIELDS_PARAMETER = "fields";
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            FieldSet fields = FieldSet.valueOf(servletRequest.getServletRequest().getParameter(FIELDS_PARAMETER));
+            if (!fields.isAll()) {
+                bodyContainer.setFilters(fields.filters());
+            }
+        }
+    }
+}
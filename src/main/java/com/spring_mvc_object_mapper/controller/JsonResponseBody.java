@@ -0,0 +1,87 @@
+package com.spring_mvc_object_mapper.controller;
+
+import com.spring_mvc_object_mapper.service.JsonBytesCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Locale;
+
+/**
+ * The JSON response of a {@code /{id}/json} endpoint, which takes the gzipped copy of a cached payload when the
+ * request's {@code Accept-Encoding} allows it. The response varies by that header whichever encoding it ends up with.
+ */
+final class JsonResponseBody implements JsonBytesCache.Target {
+
+    private static final String GZIP = "gzip";
+
+    private final HttpServletResponse response;
+    private final boolean acceptsGzip;
+
+    private JsonResponseBody(HttpServletResponse response, boolean acceptsGzip) {
+        this.response = response;
+        this.acceptsGzip = acceptsGzip;
+    }
+
+    static JsonResponseBody of(HttpServletRequest request, HttpServletResponse response) {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        return new JsonResponseBody(response, acceptsGzip(request));
+    }
+
+    @Override
+    public boolean acceptsGzip() {
+        return acceptsGzip;
+    }
+
+    @Override
+    public OutputStream open(boolean gzip, int length) throws IOException {
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        if (length >= 0) {
+            response.setContentLength(length);
+        }
+        return response.getOutputStream();
+    }
+
+    /**
+     * Whether {@code gzip}, {@code x-gzip} or {@code *} is listed with a non-zero quality. An explicit {@code gzip}
+     * entry takes precedence over {@code *}.
+     */
+    static boolean acceptsGzip(HttpServletRequest request) {
+        Boolean wildcard = null;
+        for (String header : Collections.list(request.getHeaders(HttpHeaders.ACCEPT_ENCODING))) {
+            for (String coding : header.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim().toLowerCase(Locale.ROOT);
+                boolean accepted = quality(parts) > 0;
+                if (name.equals(GZIP) || name.equals("x-gzip")) {
+                    return accepted;
+                }
+                if (name.equals("*")) {
+                    wildcard = accepted;
+                }
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,43 @@
+package com.spring_mvc_object_mapper.controller;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination for the list endpoints: clients pass {@code ?after=<id>&limit=N}
+ * and receive the id to continue from in the {@value #NEXT_CURSOR_HEADER} header, next to the page's weak ETag.
+ */
+final class KeysetPage {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+
+    private KeysetPage() {
+    }
+
+    static int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    static <T> ResponseEntity<List<T>> of(List<T> items, int pageSize, Function<T, Long> idExtractor, String eTag) {
+        return of(items, items, pageSize, idExtractor, eTag);
+    }
+
+    /**
+     * A page whose {@code items} are sent inside {@code body}, e.g. next to side-loaded entities.
+     */
+    static <T, B> ResponseEntity<B> of(List<T> items, B body, int pageSize, Function<T, Long> idExtractor,
+                                       String eTag) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag);
+        if (items.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(idExtractor.apply(items.get(items.size() - 1))));
+        }
+        return response.body(body);
+    }
+}
@@ -1,60 +1,212 @@
 package com.spring_mvc_object_mapper.controller;
 
+import com.spring_mvc_object_mapper.config.QueryBudget;
+import com.spring_mvc_object_mapper.config.SqlStatementCounter;
+import com.spring_mvc_object_mapper.dto.FieldSet;
+import com.spring_mvc_object_mapper.dto.OrderDetail;
+import com.spring_mvc_object_mapper.dto.OrderExpansion;
+import com.spring_mvc_object_mapper.dto.OrderPage;
+import com.spring_mvc_object_mapper.dto.OrderSummary;
+import com.spring_mvc_object_mapper.dto.OrderTicket;
 import com.spring_mvc_object_mapper.entity.Order;
+import com.spring_mvc_object_mapper.entity.Product;
+import com.spring_mvc_object_mapper.service.JsonImport;
+import com.spring_mvc_object_mapper.service.OrderPlacementQueue;
 import com.spring_mvc_object_mapper.service.OrderService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    private static final int MAX_BATCH_SIZE = 5_000;
+    private static final String PREFER = "Prefer";
+    private static final String RESPOND_ASYNC = "respond-async";
+    private static final long MAX_TICKET_WAIT_SECONDS = 30;
+    private static final Duration TICKET_WAIT_MARGIN = Duration.ofSeconds(5);
+
     private final OrderService orderService;
+    private final OrderPlacementQueue orderPlacementQueue;
+    private final Validator validator;
+    private final SqlStatementCounter statementCounter;
+    private final Duration exportTimeout;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderPlacementQueue orderPlacementQueue, Validator validator,
+                           SqlStatementCounter statementCounter,
+                           @Value("${orders.export.timeout:30m}") Duration exportTimeout) {
         this.orderService = orderService;
+        this.orderPlacementQueue = orderPlacementQueue;
+        this.validator = validator;
+        this.statementCounter = statementCounter;
+        this.exportTimeout = exportTimeout;
     }
 
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<?> getAllOrders(@RequestParam(defaultValue = "0") Long after,
+                                          @RequestParam(required = false) Integer limit,
+                                          @RequestParam(required = false) String fields,
+                                          @RequestParam(required = false) String expand,
+                                          @RequestParam(required = false) String include,
+                                          ServletWebRequest request) {
+        int pageSize = KeysetPage.pageSize(limit);
+        OrderExpansion expansion = OrderExpansion.of(expand, include);
+        String eTag = ETags.weak(orderService.getOrdersVersion(after, pageSize), expansion.toString(), request);
+        if (ETags.checkNotModified(request, eTag)) {
+            return null;
+        }
+        OrderPage page = orderService.getOrders(after, pageSize, FieldSet.valueOf(fields), expansion);
+        return KeysetPage.of(page.data(), expansion.hasIncluded() ? page : page.data(), pageSize,
+                OrderSummary::orderId, eTag);
+    }
+
+    /**
+     * Streams every order as NDJSON on an async thread, allowed {@code orders.export.timeout} instead of the default
+     * async request timeout.
+     */
+    @GetMapping("/export")
+    public WebAsyncTask<Void> exportOrders(HttpServletResponse response) {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            orderService.exportOrders(response.getOutputStream());
+            return null;
+        });
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Order> getOrderById(@PathVariable Long id) {
-        return ResponseEntity.ok(orderService.getOrderById(id));
+    public ResponseEntity<OrderDetail> getOrderById(@PathVariable Long id,
+                                                    @RequestParam(required = false) String fields,
+                                                    ServletWebRequest request) {
+        String eTag = ETags.strong(orderService.getOrderVersion(id), request);
+        if (ETags.checkNotModified(request, eTag)) {
+            return null;
+        }
+        FieldSet fieldSet = FieldSet.valueOf(fields);
+        OrderDetail order = orderService.getOrderDetail(id, fieldSet);
+        if (fieldSet.isAll()) {
+            // Tag the version actually rendered; a partial order lacks the versions to recompute it.
+            eTag = ETags.strong(orderService.getOrderVersion(order), request);
+        }
+        return ResponseEntity.ok().eTag(eTag).body(order);
     }
 
     @GetMapping("/{id}/json")
-    public ResponseEntity<String> getOrderAsJson(@PathVariable Long id) {
-        return ResponseEntity.ok(orderService.getOrderAsJson(id));
+    public void getOrderAsJson(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        long version = orderService.getOrderVersion(id);
+        orderService.writeOrderAsJson(id, version, JsonResponseBody.of(request, response));
     }
 
     @PostMapping("/from-json")
-    public ResponseEntity<Order> createOrderFromJson(@RequestBody String orderJson) {
-        return ResponseEntity.ok(orderService.createOrderFromJson(orderJson));
+    @QueryBudget(maxStatements = QueryBudget.UNLIMITED, maxRepeats = QueryBudget.UNLIMITED)
+    public ResponseEntity<?> createOrderFromJson(InputStream orderJson) {
+        JsonImport<Order> result = orderService.createOrdersFromJson(orderJson);
+        if (result.isBulk()) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("saved", result.savedCount()));
+        }
+        return ResponseEntity.ok(result.value());
     }
 
+    /**
+     * Places the order, or with {@code Prefer: respond-async} queues it and answers 202 with a ticket to poll.
+     * Stock is updated with one statement per distinct product, which the query budget allows on top of its default.
+     */
     @PostMapping
-    public ResponseEntity<?> createOrder(@Valid @RequestBody Order order, BindingResult bindingResult) {
+    public ResponseEntity<?> createOrder(@Valid @RequestBody Order order, BindingResult bindingResult,
+                                         @RequestHeader(name = PREFER, required = false) String prefer) {
         if (bindingResult.hasErrors()) {
             List<String> errors = bindingResult.getAllErrors().stream()
                     .map(error -> error.getDefaultMessage())
                     .collect(Collectors.toList());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
         }
+        if (prefer != null && prefer.contains(RESPOND_ASYNC)) {
+            OrderTicket ticket = orderPlacementQueue.submit(order);
+            return ResponseEntity.accepted()
+                    .location(ServletUriComponentsBuilder.fromCurrentRequestUri()
+                            .path("/tickets/{ticketId}")
+                            .buildAndExpand(ticket.ticketId())
+                            .toUri())
+                    .header("Preference-Applied", RESPOND_ASYNC)
+                    .body(ticket);
+        }
+        if (order.getProducts() != null) {
+            statementCounter.allow((int) order.getProducts().stream()
+                    .filter(Objects::nonNull)
+                    .map(Product::getProductId)
+                    .distinct()
+                    .count());
+        }
         return ResponseEntity.status(HttpStatus.CREATED).body(orderService.createOrder(
                 order,
                 order.getCustomer(),
                 order.getProducts()));
     }
 
+    /**
+     * The ticket of an order queued for placement. With {@code wait}, answers as soon as the order is placed or has
+     * failed, or after that many seconds (at most {@value #MAX_TICKET_WAIT_SECONDS}) with the ticket still pending.
+     * The async request is allowed a little longer than the wait, whatever the default async timeout.
+     */
+    @GetMapping("/tickets/{ticketId}")
+    public DeferredResult<OrderTicket> getOrderTicket(@PathVariable String ticketId,
+                                                      @RequestParam(defaultValue = "0") long wait) {
+        if (wait <= 0) {
+            DeferredResult<OrderTicket> ticket = new DeferredResult<>();
+            ticket.setResult(orderPlacementQueue.getTicket(ticketId));
+            return ticket;
+        }
+        Duration timeout = Duration.ofSeconds(Math.min(wait, MAX_TICKET_WAIT_SECONDS));
+        DeferredResult<OrderTicket> ticket = new DeferredResult<>(timeout.plus(TICKET_WAIT_MARGIN).toMillis());
+        orderPlacementQueue.awaitTicket(ticketId, timeout).thenAccept(ticket::setResult);
+        return ticket;
+    }
+
+    @PostMapping("/batch")
+    @QueryBudget(maxStatements = QueryBudget.UNLIMITED, maxRepeats = QueryBudget.UNLIMITED)
+    public ResponseEntity<?> createOrders(@RequestBody List<Order> orders) {
+        if (orders.isEmpty() || orders.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(List.of("Batch must contain between 1 and " + MAX_BATCH_SIZE + " orders"));
+        }
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            if (orders.get(i) == null) {
+                errors.add("[" + i + "] Order cannot be null");
+                continue;
+            }
+            for (ConstraintViolation<Order> violation : validator.validate(orders.get(i))) {
+                errors.add("[" + i + "] " + violation.getMessage());
+            }
+        }
+        if (!errors.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(orderService.createOrders(orders));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteOrder(@PathVariable Long id) {
         orderService.deleteOrder(id);
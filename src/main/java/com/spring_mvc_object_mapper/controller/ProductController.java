@@ -1,14 +1,23 @@
 package com.spring_mvc_object_mapper.controller;
 
+import com.spring_mvc_object_mapper.config.QueryBudget;
+import com.spring_mvc_object_mapper.dto.FieldSet;
 import com.spring_mvc_object_mapper.entity.Product;
+import com.spring_mvc_object_mapper.service.JsonImport;
 import com.spring_mvc_object_mapper.service.ProductService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -22,23 +31,42 @@ public class ProductController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<List<Product>> getAllProducts(@RequestParam(defaultValue = "0") Long after,
+                                                        @RequestParam(required = false) Integer limit,
+                                                        @RequestParam(required = false) String fields,
+                                                        ServletWebRequest request) {
+        int pageSize = KeysetPage.pageSize(limit);
+        String eTag = ETags.weak(productService.getProductsVersion(after, pageSize), request);
+        if (ETags.checkNotModified(request, eTag)) {
+            return null;
+        }
+        return KeysetPage.of(productService.getProducts(after, pageSize, FieldSet.valueOf(fields)), pageSize, Product::getProductId, eTag);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    public ResponseEntity<Product> getProductById(@PathVariable Long id, ServletWebRequest request) {
+        if (ETags.checkNotModified(request, ETags.strong(productService.getProductVersion(id), request))) {
+            return null;
+        }
+        Product product = productService.getProductById(id);
+        return ResponseEntity.ok().eTag(ETags.strong(product.getVersion(), request)).body(product);
     }
 
     @GetMapping("/{id}/json")
-    public ResponseEntity<String> getProductAsJson(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductAsJson(id));
+    public void getProductAsJson(@PathVariable Long id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        long version = productService.getProductVersion(id);
+        productService.writeProductAsJson(id, version, JsonResponseBody.of(request, response));
     }
 
     @PostMapping("/from-json")
-    public ResponseEntity<Product> createProductFromJson(@RequestBody String productJson) {
-        return ResponseEntity.ok(productService.createProductFromJson(productJson));
+    @QueryBudget(maxStatements = QueryBudget.UNLIMITED, maxRepeats = QueryBudget.UNLIMITED)
+    public ResponseEntity<?> createProductFromJson(InputStream productJson) {
+        JsonImport<Product> result = productService.createProductsFromJson(productJson);
+        if (result.isBulk()) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("saved", result.savedCount()));
+        }
+        return ResponseEntity.ok(result.value());
     }
 
     @PostMapping
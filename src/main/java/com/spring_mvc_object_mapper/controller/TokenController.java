@@ -0,0 +1,27 @@
+package com.spring_mvc_object_mapper.controller;
+
+import com.spring_mvc_object_mapper.config.SignedTokens;
+import com.spring_mvc_object_mapper.config.WebSecurityConfig;
+import com.spring_mvc_object_mapper.dto.AccessToken;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class TokenController {
+
+    private final SignedTokens signedTokens;
+
+    public TokenController(SignedTokens signedTokens) {
+        this.signedTokens = signedTokens;
+    }
+
+    /**
+     * Exchanges the Basic credentials the request was authenticated with for a signed access token.
+     */
+    @PostMapping(WebSecurityConfig.TOKEN_PATH)
+    public ResponseEntity<AccessToken> issueToken(Authentication authentication) {
+        return ResponseEntity.ok(signedTokens.issue(authentication));
+    }
+}
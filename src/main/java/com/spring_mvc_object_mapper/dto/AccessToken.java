@@ -0,0 +1,7 @@
+package com.spring_mvc_object_mapper.dto;
+
+/**
+ * A signed access token to send as {@code Authorization: Bearer <accessToken>}, valid for {@code expiresIn} seconds.
+ */
+public record AccessToken(String accessToken, String tokenType, long expiresIn) {
+}
@@ -0,0 +1,225 @@
+package com.spring_mvc_object_mapper.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spring_mvc_object_mapper.exception.InvalidFieldsException;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * The properties a client asked for with {@code ?fields=}, e.g. {@code orderId,customer.email,products}: a comma
+ * separated list of property paths, where naming a property includes everything below it. Parsed field sets, together
+ * with the Jackson filter that renders them, are cached by the raw parameter value, so repeated requests reuse both.
+ */
+public final class FieldSet {
+
+    /**
+     * Filter id the application's {@code ObjectMapper} assigns to every entity and DTO.
+     */
+    public static final String FILTER_ID = "fields";
+
+    public static final FieldSet ALL = new FieldSet(Node.WHOLE);
+
+    private static final int MAX_CACHED = 1_000;
+    private static final Pattern NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+    private static final Cache<String, FieldSet> PARSED = Caffeine.newBuilder().maximumSize(MAX_CACHED).build();
+
+    private final Node root;
+    private final String canonical;
+    private final FilterProvider filters;
+
+    private FieldSet(Node root) {
+        this.root = root;
+        this.canonical = root.render("");
+        this.filters = new SimpleFilterProvider().addFilter(FILTER_ID, new PathFilter(root));
+    }
+
+    /**
+     * Parses a {@code fields} parameter; a missing or blank value selects every property.
+     */
+    public static FieldSet valueOf(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        return PARSED.get(fields, FieldSet::parse);
+    }
+
+    private static FieldSet parse(String fields) {
+        Node root = new Node();
+        for (String path : fields.split(",")) {
+            String trimmed = path.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            Node node = root;
+            for (String name : trimmed.split("\\.", -1)) {
+                if (!NAME.matcher(name).matches()) {
+                    throw new InvalidFieldsException("Invalid field: " + trimmed);
+                }
+                node = node.child(name);
+            }
+            node.whole = true;
+        }
+        if (root.children.isEmpty()) {
+            return ALL;
+        }
+        return new FieldSet(root.freeze());
+    }
+
+    public boolean isAll() {
+        return root.whole;
+    }
+
+    /**
+     * Whether the property at {@code path} (dot separated) is rendered, in full or in part.
+     */
+    public boolean includes(String path) {
+        Node node = root;
+        for (String name : path.split("\\.")) {
+            if (node.whole) {
+                return true;
+            }
+            node = node.children.get(name);
+            if (node == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Top-level property names, or an empty set when every property is selected.
+     */
+    public Set<String> names() {
+        return root.children.keySet();
+    }
+
+    /**
+     * Jackson filters that drop every property outside this set.
+     */
+    public FilterProvider filters() {
+        return filters;
+    }
+
+    /**
+     * Sorted, normalized form of the set: two parameters that select the same properties render the same string.
+     */
+    @Override
+    public String toString() {
+        return canonical;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof FieldSet fieldSet && canonical.equals(fieldSet.canonical);
+    }
+
+    @Override
+    public int hashCode() {
+        return canonical.hashCode();
+    }
+
+    /**
+     * A response wrapper rendered in full around the items in its {@value #DATA} property, which the selection
+     * applies to as if each were a response of its own.
+     */
+    public interface Envelope {
+
+        String DATA = "data";
+    }
+
+    private static final class Node {
+
+        static final Node WHOLE = new Node().markWhole();
+
+        boolean whole;
+        Map<String, Node> children = new TreeMap<>();
+
+        Node child(String name) {
+            return children.computeIfAbsent(name, ignored -> new Node());
+        }
+
+        Node markWhole() {
+            whole = true;
+            children = Collections.emptyMap();
+            return this;
+        }
+
+        Node freeze() {
+            if (whole) {
+                return markWhole();
+            }
+            children.replaceAll((name, child) -> child.freeze());
+            children = Collections.unmodifiableMap(children);
+            return this;
+        }
+
+        String render(String prefix) {
+            if (whole) {
+                return prefix.isEmpty() ? "*" : prefix;
+            }
+            StringBuilder rendered = new StringBuilder();
+            children.forEach((name, child) -> {
+                if (!rendered.isEmpty()) {
+                    rendered.append(',');
+                }
+                rendered.append(child.render(prefix.isEmpty() ? name : prefix + "." + name));
+            });
+            return rendered.toString();
+        }
+    }
+
+    /**
+     * Locates each property by walking the generator's output context up to the root, so one filter instance serves
+     * every class and nesting level without any lookup of the bean's own properties.
+     */
+    private static final class PathFilter extends SimpleBeanPropertyFilter {
+
+        private final Node root;
+
+        PathFilter(Node root) {
+            this.root = root;
+        }
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator generator, SerializerProvider provider,
+                                     PropertyWriter writer) throws Exception {
+            if (pojo instanceof Envelope) {
+                writer.serializeAsField(pojo, generator, provider);
+                return;
+            }
+            Node node = nodeOf(generator.getOutputContext());
+            if (node != null && (node.whole || node.children.containsKey(writer.getName()))) {
+                writer.serializeAsField(pojo, generator, provider);
+            } else if (!generator.canOmitFields()) {
+                writer.serializeAsOmittedField(pojo, generator, provider);
+            }
+        }
+
+        private Node nodeOf(JsonStreamContext context) {
+            JsonStreamContext parent = context.getParent();
+            if (parent == null) {
+                return root;
+            }
+            if (parent.getCurrentValue() instanceof Envelope) {
+                return Envelope.DATA.equals(parent.getCurrentName()) ? root : Node.WHOLE;
+            }
+            Node node = nodeOf(parent);
+            if (node == null || node.whole || !parent.inObject()) {
+                return node;
+            }
+            return node.children.get(parent.getCurrentName());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.spring_mvc_object_mapper.dto;
+
+import com.spring_mvc_object_mapper.entity.Customer;
+import com.spring_mvc_object_mapper.entity.Order;
+import com.spring_mvc_object_mapper.entity.Product;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Read-only view of a single order with its customer and products, in the same JSON shape as the {@link Order}
+ * entity. Products are listed by id, so the same state always renders the same bytes.
+ */
+public record OrderDetail(Long orderId, CustomerDetail customer, List<ProductDetail> products, LocalDate orderDate,
+                          String shippingAddress, Double totalPrice, String orderStatus, Long version) {
+
+    public static OrderDetail of(Order order) {
+        return of(order, FieldSet.ALL);
+    }
+
+    /**
+     * Copies only the associations {@code fields} renders, so the others need not have been loaded.
+     */
+    public static OrderDetail of(Order order, FieldSet fields) {
+        return new OrderDetail(
+                order.getOrderId(),
+                fields.includes("customer") && order.getCustomer() != null ? CustomerDetail.of(order.getCustomer()) : null,
+                fields.includes("products")
+                        ? order.getProducts().stream()
+                                .sorted(Comparator.comparing(Product::getProductId))
+                                .map(ProductDetail::of)
+                                .toList()
+                        : List.of(),
+                order.getOrderDate(),
+                order.getShippingAddress(),
+                order.getTotalPrice(),
+                order.getOrderStatus(),
+                order.getVersion());
+    }
+
+    public record CustomerDetail(Long customerId, String firstName, String lastName, String email,
+                                 String contactNumber, Long version) {
+
+        static CustomerDetail of(Customer customer) {
+            return new CustomerDetail(customer.getCustomerId(), customer.getFirstName(), customer.getLastName(),
+                    customer.getEmail(), customer.getContactNumber(), customer.getVersion());
+        }
+    }
+
+    public record ProductDetail(Long productId, String name, String description, Double price,
+                                Integer quantityInStock, Long version) {
+
+        static ProductDetail of(Product product) {
+            return new ProductDetail(product.getProductId(), product.getName(), product.getDescription(),
+                    product.getPrice(), product.getQuantityInStock(), product.getVersion());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.spring_mvc_object_mapper.dto;
+
+import com.spring_mvc_object_mapper.exception.InvalidExpandException;
+
+/**
+ * How an order list renders each order's customer and products: by id unless {@code ?expand=customer,products}
+ * embeds them, and optionally side-loaded once per response with {@code ?include=customer,products}.
+ */
+public record OrderExpansion(boolean customer, boolean products, boolean includeCustomers, boolean includeProducts) {
+
+    public static final OrderExpansion NONE = new OrderExpansion(false, false, false, false);
+    public static final OrderExpansion FULL = new OrderExpansion(true, true, false, false);
+
+    private static final String CUSTOMER = "customer";
+    private static final String PRODUCTS = "products";
+    private static final String NONE_VALUE = "none";
+
+    public static OrderExpansion of(String expand, String include) {
+        boolean[] expanded = parse("expand", expand, true);
+        boolean[] included = parse("include", include, false);
+        return new OrderExpansion(expanded[0], expanded[1], included[0], included[1]);
+    }
+
+    private static boolean[] parse(String parameter, String value, boolean noneAllowed) {
+        boolean[] selected = new boolean[2];
+        if (value == null || value.isBlank()) {
+            return selected;
+        }
+        for (String token : value.split(",")) {
+            switch (token.trim()) {
+                case CUSTOMER -> selected[0] = true;
+                case PRODUCTS -> selected[1] = true;
+                case NONE_VALUE -> {
+                    if (!noneAllowed) {
+                        throw new InvalidExpandException("Invalid " + parameter + ": " + token.trim());
+                    }
+                }
+                default -> throw new InvalidExpandException("Invalid " + parameter + ": " + token.trim());
+            }
+        }
+        return selected;
+    }
+
+    public boolean hasIncluded() {
+        return includeCustomers || includeProducts;
+    }
+
+    /**
+     * Normalized form, e.g. {@code expand=customer;include=products}; equal expansions render the same string.
+     */
+    @Override
+    public String toString() {
+        return "expand=" + names(customer, products) + ";include=" + names(includeCustomers, includeProducts);
+    }
+
+    private static String names(boolean withCustomer, boolean withProducts) {
+        if (withCustomer && withProducts) {
+            return CUSTOMER + "," + PRODUCTS;
+        }
+        return withCustomer ? CUSTOMER : withProducts ? PRODUCTS : NONE_VALUE;
+    }
+}
@@ -0,0 +1,57 @@
+package com.spring_mvc_object_mapper.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.spring_mvc_object_mapper.entity.Customer;
+import com.spring_mvc_object_mapper.entity.Order;
+import com.spring_mvc_object_mapper.entity.Product;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * One page of orders and, when requested, the customers and products they reference, each listed once however many
+ * orders on the page share it. Rendered as {@code {"data": [...], "included": {...}}}.
+ */
+public record OrderPage(List<OrderSummary> data, @JsonInclude(JsonInclude.Include.NON_NULL) Included included)
+        implements FieldSet.Envelope {
+
+    /**
+     * Maps loaded orders. {@code productIds} holds each order's product ids for the orders whose ids are rendered;
+     * an order missing from it has no products.
+     */
+    public static OrderPage of(List<Order> orders, FieldSet fields, OrderExpansion expansion,
+                               Map<Long, List<Long>> productIds) {
+        List<OrderSummary> data = orders.stream()
+                .map(order -> OrderSummary.of(order, fields, expansion,
+                        productIds.getOrDefault(order.getOrderId(), List.of())))
+                .toList();
+        return new OrderPage(data, expansion.hasIncluded() ? Included.of(orders, expansion) : null);
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Included(List<OrderSummary.CustomerSummary> customers, List<OrderSummary.ProductSummary> products) {
+
+        static Included of(List<Order> orders, OrderExpansion expansion) {
+            List<OrderSummary.CustomerSummary> customers = null;
+            if (expansion.includeCustomers()) {
+                Map<Long, Customer> byId = new TreeMap<>();
+                orders.stream()
+                        .map(Order::getCustomer)
+                        .filter(Objects::nonNull)
+                        .forEach(customer -> byId.putIfAbsent(customer.getCustomerId(), customer));
+                customers = byId.values().stream().map(OrderSummary.CustomerSummary::of).toList();
+            }
+            List<OrderSummary.ProductSummary> products = null;
+            if (expansion.includeProducts()) {
+                Map<Long, Product> byId = new TreeMap<>();
+                orders.stream()
+                        .flatMap(order -> order.getProducts().stream())
+                        .forEach(product -> byId.putIfAbsent(product.getProductId(), product));
+                products = byId.values().stream().map(OrderSummary.ProductSummary::of).toList();
+            }
+            return new Included(customers, products);
+        }
+    }
+}
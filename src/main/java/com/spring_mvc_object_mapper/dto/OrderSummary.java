@@ -0,0 +1,67 @@
+package com.spring_mvc_object_mapper.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.spring_mvc_object_mapper.entity.Customer;
+import com.spring_mvc_object_mapper.entity.Order;
+import com.spring_mvc_object_mapper.entity.Product;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Read-only list view of an order. The customer and products are referenced by {@code customerId} and
+ * {@code productIds} unless the {@link OrderExpansion} embeds them, in which case they appear with the same fields
+ * as in the order's own JSON, versions aside.
+ */
+public record OrderSummary(Long orderId,
+                           @JsonInclude(JsonInclude.Include.NON_NULL) Long customerId,
+                           @JsonInclude(JsonInclude.Include.NON_NULL) CustomerSummary customer,
+                           @JsonInclude(JsonInclude.Include.NON_NULL) List<Long> productIds,
+                           @JsonInclude(JsonInclude.Include.NON_NULL) List<ProductSummary> products,
+                           LocalDate orderDate, String shippingAddress, Double totalPrice, String orderStatus,
+                           Long version) {
+
+    /**
+     * Copies only the associations {@code fields} and {@code expansion} render, so the others need not have been
+     * loaded. {@code productIds} are the order's product ids in ascending order, or null when they are not rendered.
+     */
+    public static OrderSummary of(Order order, FieldSet fields, OrderExpansion expansion, List<Long> productIds) {
+        Customer customer = order.getCustomer();
+        return new OrderSummary(
+                order.getOrderId(),
+                !expansion.customer() && customer != null ? customer.getCustomerId() : null,
+                expansion.customer() && fields.includes("customer") && customer != null
+                        ? CustomerSummary.of(customer) : null,
+                !expansion.products() && fields.includes("productIds") ? productIds : null,
+                expansion.products() && fields.includes("products")
+                        ? order.getProducts().stream()
+                                .sorted(Comparator.comparing(Product::getProductId))
+                                .map(ProductSummary::of)
+                                .toList()
+                        : null,
+                order.getOrderDate(),
+                order.getShippingAddress(),
+                order.getTotalPrice(),
+                order.getOrderStatus(),
+                order.getVersion());
+    }
+
+    public record CustomerSummary(Long customerId, String firstName, String lastName, String email,
+                                  String contactNumber) {
+
+        static CustomerSummary of(Customer customer) {
+            return new CustomerSummary(customer.getCustomerId(), customer.getFirstName(), customer.getLastName(),
+                    customer.getEmail(), customer.getContactNumber());
+        }
+    }
+
+    public record ProductSummary(Long productId, String name, String description, Double price,
+                                 Integer quantityInStock) {
+
+        static ProductSummary of(Product product) {
+            return new ProductSummary(product.getProductId(), product.getName(), product.getDescription(),
+                    product.getPrice(), product.getQuantityInStock());
+        }
+    }
+}
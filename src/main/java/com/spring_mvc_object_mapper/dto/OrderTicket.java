@@ -0,0 +1,22 @@
+package com.spring_mvc_object_mapper.dto;
+
+/**
+ * State of an order accepted for asynchronous placement: {@code orderId} once it is placed, {@code error} if it could
+ * not be.
+ */
+public record OrderTicket(String ticketId, Status status, Long orderId, String error) {
+
+    public enum Status { PENDING, PLACED, FAILED }
+
+    public static OrderTicket pending(String ticketId) {
+        return new OrderTicket(ticketId, Status.PENDING, null, null);
+    }
+
+    public static OrderTicket placed(String ticketId, Long orderId) {
+        return new OrderTicket(ticketId, Status.PLACED, orderId, null);
+    }
+
+    public static OrderTicket failed(String ticketId, String error) {
+        return new OrderTicket(ticketId, Status.FAILED, null, error);
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.NotEmpty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Data
@@ -14,7 +15,8 @@ import lombok.NoArgsConstructor;
 @Table(name = "customers")
 public class Customer {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customers_seq")
+    @SequenceGenerator(name = "customers_seq", sequenceName = "customers_seq", allocationSize = 50)
     @Column(name = "customer_id")
     private Long customerId;
 
@@ -33,4 +35,9 @@ public class Customer {
     @NotEmpty(message = "Contact number is required.")
     @Column(name = "contact_number")
     private String contactNumber;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version")
+    private Long version;
 }
\ No newline at end of file
@@ -5,6 +5,8 @@ import jakarta.validation.constraints.NotEmpty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import java.time.LocalDate;
@@ -17,15 +19,17 @@ import java.util.List;
 @Table(name = "orders")
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     @Column(name = "order_id")
     private Long orderId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id")
     private Customer customer;
 
     @ManyToMany(cascade = CascadeType.ALL)
+    @BatchSize(size = 50)
     @JoinTable(name = "orders_products", joinColumns = @JoinColumn(name = "order_id")
             , inverseJoinColumns = @JoinColumn(name = "product_id"))
     private List<Product> products;
@@ -41,4 +45,9 @@ public class Order {
     @Column(name = "order_status")
     @NotEmpty(message = "Order status cannot be empty")
     private String orderStatus;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version")
+    private Long version;
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Data
@@ -14,7 +15,8 @@ import lombok.NoArgsConstructor;
 @Table(name = "products")
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     @Column(name = "product_id")
     private Long productId;
 
@@ -32,5 +34,10 @@ public class Product {
     @PositiveOrZero(message = "Quantity in stock must be positive.")
     @Column(name = "quantity_in_stock")
     private Integer quantityInStock;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version")
+    private Long version;
 }
 
@@ -1,6 +1,7 @@
 package com.spring_mvc_object_mapper.exception;
 
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -22,6 +23,21 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(400).body(convertExceptionFromString.getMessage());
     }
 
+    @ExceptionHandler(InvalidFieldsException.class)
+    public ResponseEntity<String> invalidFieldsException(final InvalidFieldsException invalidFieldsException) {
+        return ResponseEntity.status(400).body(invalidFieldsException.getMessage());
+    }
+
+    @ExceptionHandler(InvalidExpandException.class)
+    public ResponseEntity<String> invalidExpandException(final InvalidExpandException invalidExpandException) {
+        return ResponseEntity.status(400).body(invalidExpandException.getMessage());
+    }
+
+    @ExceptionHandler(InvalidOrderException.class)
+    public ResponseEntity<String> invalidOrderException(final InvalidOrderException invalidOrderException) {
+        return ResponseEntity.status(400).body(invalidOrderException.getMessage());
+    }
+
     @ExceptionHandler(CustomerNotFoundException.class)
     public ResponseEntity<String> customerNotFoundException(final CustomerNotFoundException customerNotFoundException) {
         return ResponseEntity.status(404).body(customerNotFoundException.getMessage());
@@ -42,6 +58,18 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(404).body(productOutOfStockException.getMessage());
     }
 
+    @ExceptionHandler(OrderTicketNotFoundException.class)
+    public ResponseEntity<String> orderTicketNotFoundException(final OrderTicketNotFoundException orderTicketNotFoundException) {
+        return ResponseEntity.status(404).body(orderTicketNotFoundException.getMessage());
+    }
+
+    @ExceptionHandler(OrderQueueFullException.class)
+    public ResponseEntity<String> orderQueueFullException(final OrderQueueFullException orderQueueFullException) {
+        return ResponseEntity.status(503)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(orderQueueFullException.getMessage());
+    }
+
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<?> handleConstraintViolationException(ConstraintViolationException ex) {
         List<String> errors = ex.getConstraintViolations().stream()
@@ -0,0 +1,5 @@
+package com.spring_mvc_object_mapper.exception;
+
+public class InvalidExpandException extends RuntimeException {
+    public InvalidExpandException(String message) { super(message); }
+}
@@ -0,0 +1,5 @@
+package com.spring_mvc_object_mapper.exception;
+
+public class InvalidFieldsException extends RuntimeException {
+    public InvalidFieldsException(String message) { super(message); }
+}
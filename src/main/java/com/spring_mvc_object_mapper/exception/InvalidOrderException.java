@@ -0,0 +1,5 @@
+package com.spring_mvc_object_mapper.exception;
+
+public class InvalidOrderException extends RuntimeException {
+    public InvalidOrderException(String message) { super(message); }
+}
@@ -0,0 +1,5 @@
+package com.spring_mvc_object_mapper.exception;
+
+public class OrderQueueFullException extends RuntimeException {
+    public OrderQueueFullException(String message) { super(message); }
+}
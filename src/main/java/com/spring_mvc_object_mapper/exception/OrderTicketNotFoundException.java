@@ -0,0 +1,5 @@
+package com.spring_mvc_object_mapper.exception;
+
+public class OrderTicketNotFoundException extends RuntimeException {
+    public OrderTicketNotFoundException(String message) { super(message); }
+}
@@ -0,0 +1,5 @@
+package com.spring_mvc_object_mapper.exception;
+
+public class QueryBudgetExceededException extends RuntimeException {
+    public QueryBudgetExceededException(String message) { super(message); }
+}
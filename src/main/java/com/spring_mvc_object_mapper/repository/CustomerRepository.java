@@ -1,7 +1,21 @@
 package com.spring_mvc_object_mapper.repository;
 
 import com.spring_mvc_object_mapper.entity.Customer;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
+import java.util.List;
+import java.util.Optional;
+
+public interface CustomerRepository extends JpaRepository<Customer, Long>, SparseCustomerRepository {
+
+    List<Customer> findByCustomerIdGreaterThanOrderByCustomerIdAsc(Long customerId, Limit limit);
+
+    @Query("select c.version from Customer c where c.customerId = :customerId")
+    Optional<Long> findVersionByCustomerId(Long customerId);
+
+    @Query("select new com.spring_mvc_object_mapper.repository.EntityVersion(c.customerId, c.version) "
+            + "from Customer c where c.customerId > :customerId order by c.customerId")
+    List<EntityVersion> findVersionsByCustomerIdGreaterThan(Long customerId, Limit limit);
 }
@@ -0,0 +1,4 @@
+package com.spring_mvc_object_mapper.repository;
+
+public record EntityVersion(Long id, Long version) {
+}
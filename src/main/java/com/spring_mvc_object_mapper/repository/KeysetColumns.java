@@ -0,0 +1,46 @@
+package com.spring_mvc_object_mapper.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One keyset page of an entity's id and a chosen subset of its columns, for list reads that render only some
+ * properties. Each tuple element is aliased with its attribute name.
+ */
+final class KeysetColumns {
+
+    private KeysetColumns() {
+    }
+
+    static List<Tuple> page(EntityManager entityManager, Class<?> entityType, String idAttribute,
+                            List<String> attributes, Long after, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<?> root = query.from(entityType);
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root.get(idAttribute).alias(idAttribute));
+        attributes.forEach(attribute -> selections.add(root.get(attribute).alias(attribute)));
+        query.multiselect(selections)
+                .where(builder.greaterThan(root.<Long>get(idAttribute), after))
+                .orderBy(builder.asc(root.get(idAttribute)));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    /**
+     * The attribute's value, or {@code null} when it was not selected.
+     */
+    static <T> T value(Tuple row, List<String> attributes, String attribute, Class<T> type) {
+        return attributes.contains(attribute) ? row.get(attribute, type) : null;
+    }
+}
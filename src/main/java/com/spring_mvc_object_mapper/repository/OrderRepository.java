@@ -1,7 +1,105 @@
 package com.spring_mvc_object_mapper.repository;
 
 import com.spring_mvc_object_mapper.entity.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    /**
+     * One keyset page of orders with their customers and products, fetched in a single statement.
+     * The page is cut in a subquery because a limit on a collection fetch would be applied in memory.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select o from Order o left join fetch o.customer left join fetch o.products "
+            + "where o.orderId in (select o2.orderId from Order o2 where o2.orderId > :orderId "
+            + "order by o2.orderId limit :limit) "
+            + "order by o.orderId")
+    List<Order> findPageWithCustomerAndProducts(Long orderId, int limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select o from Order o left join fetch o.products "
+            + "where o.orderId in (select o2.orderId from Order o2 where o2.orderId > :orderId "
+            + "order by o2.orderId limit :limit) "
+            + "order by o.orderId")
+    List<Order> findPageWithProducts(Long orderId, int limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select o from Order o left join fetch o.customer where o.orderId > :orderId order by o.orderId")
+    List<Order> findPageWithCustomer(Long orderId, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Order> findByOrderIdGreaterThanOrderByOrderIdAsc(Long orderId, Limit limit);
+
+    @Query("select new com.spring_mvc_object_mapper.repository.OrderLine(o.orderId, p.productId) "
+            + "from Order o join o.products p where o.orderId in :orderIds order by o.orderId, p.productId")
+    List<OrderLine> findLinesByOrderIdIn(Collection<Long> orderIds);
+
+    @EntityGraph(attributePaths = {"customer", "products"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Optional<Order> findWithCustomerAndProductsByOrderId(Long orderId);
+
+    @EntityGraph(attributePaths = "products")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Optional<Order> findWithProductsByOrderId(Long orderId);
+
+    @EntityGraph(attributePaths = "customer")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Optional<Order> findWithCustomerByOrderId(Long orderId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Optional<Order> findByOrderId(Long orderId);
+
+    @Query("select new com.spring_mvc_object_mapper.repository.OrderVersionRow("
+            + "o.orderId, o.version, c.customerId, c.version, p.productId, p.version) "
+            + "from Order o left join o.customer c left join o.products p "
+            + "where o.orderId = :orderId order by p.productId")
+    List<OrderVersionRow> findVersionRowsByOrderId(Long orderId);
+
+    @Query("select new com.spring_mvc_object_mapper.repository.OrderVersionRow("
+            + "o.orderId, o.version, c.customerId, c.version, p.productId, p.version) "
+            + "from Order o left join o.customer c left join o.products p "
+            + "where o.orderId in (select o2.orderId from Order o2 where o2.orderId > :orderId "
+            + "order by o2.orderId limit :limit) "
+            + "order by o.orderId, p.productId")
+    List<OrderVersionRow> findVersionRowsByOrderIdGreaterThan(Long orderId, int limit);
+
+    /**
+     * Forward-only cursor over every order; the caller must consume it inside a transaction and close it.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select o from Order o left join fetch o.customer order by o.orderId")
+    Stream<Order> streamAllOrderByOrderId();
+
+    /**
+     * Loads the products of the given orders in one statement, initializing the collections of orders already read.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select distinct o from Order o left join fetch o.products where o.orderId in :orderIds")
+    List<Order> fetchProductsByOrderIdIn(Collection<Long> orderIds);
+
+    /**
+     * Bulk delete; Hibernate first removes the matching {@code orders_products} rows in one statement.
+     */
+    @Modifying
+    @Query("delete from Order o where o.customer.customerId = :customerId")
+    int deleteByCustomerId(Long customerId);
+
+    @Modifying
+    @Query(value = "delete from orders_products where product_id = :productId", nativeQuery = true)
+    int deleteOrderLinesByProductId(Long productId);
 }
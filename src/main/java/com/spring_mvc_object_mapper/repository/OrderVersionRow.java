@@ -0,0 +1,8 @@
+package com.spring_mvc_object_mapper.repository;
+
+/**
+ * One row per product line of an order, with the ids and versions of everything its JSON embeds.
+ */
+public record OrderVersionRow(Long orderId, Long orderVersion, Long customerId, Long customerVersion,
+                              Long productId, Long productVersion) {
+}
@@ -1,7 +1,37 @@
 package com.spring_mvc_object_mapper.repository;
 
 import com.spring_mvc_object_mapper.entity.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+import java.util.List;
+import java.util.Optional;
+
+public interface ProductRepository extends JpaRepository<Product, Long>, SparseProductRepository {
+
+    List<Product> findByProductIdGreaterThanOrderByProductIdAsc(Long productId, Limit limit);
+
+    @Query("select p.version from Product p where p.productId = :productId")
+    Optional<Long> findVersionByProductId(Long productId);
+
+    @Query("select new com.spring_mvc_object_mapper.repository.EntityVersion(p.productId, p.version) "
+            + "from Product p where p.productId > :productId order by p.productId")
+    List<EntityVersion> findVersionsByProductIdGreaterThan(Long productId, Limit limit);
+
+    @Modifying
+    @Query("delete from Product p where p.productId = :productId")
+    int deleteByProductId(Long productId);
+
+    /**
+     * Takes {@code quantity} units out of stock only if that many are available; returns 0 otherwise.
+     * The version is bumped as well, so cached representations of the product are not reused. Pending changes are
+     * flushed first and the persistence context is cleared after, so products read next carry the new stock and
+     * version.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Product p set p.quantityInStock = p.quantityInStock - :quantity "
+            + "where p.productId = :productId and p.quantityInStock >= :quantity")
+    int decrementStock(Long productId, int quantity);
 }
@@ -0,0 +1,15 @@
+package com.spring_mvc_object_mapper.repository;
+
+import com.spring_mvc_object_mapper.entity.Customer;
+
+import java.util.List;
+import java.util.Set;
+
+public interface SparseCustomerRepository {
+
+    /**
+     * One keyset page of customers with only the id and the named columns loaded; every other property is null.
+     * The customers are not managed.
+     */
+    List<Customer> findPageWithColumns(Long customerId, int limit, Set<String> columns);
+}
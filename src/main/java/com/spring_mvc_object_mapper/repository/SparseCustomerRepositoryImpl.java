@@ -0,0 +1,32 @@
+package com.spring_mvc_object_mapper.repository;
+
+import com.spring_mvc_object_mapper.entity.Customer;
+import jakarta.persistence.EntityManager;
+
+import java.util.List;
+import java.util.Set;
+
+class SparseCustomerRepositoryImpl implements SparseCustomerRepository {
+
+    private static final List<String> COLUMNS = List.of("firstName", "lastName", "email", "contactNumber", "version");
+
+    private final EntityManager entityManager;
+
+    SparseCustomerRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Customer> findPageWithColumns(Long customerId, int limit, Set<String> columns) {
+        List<String> selected = COLUMNS.stream().filter(columns::contains).toList();
+        return KeysetColumns.page(entityManager, Customer.class, "customerId", selected, customerId, limit).stream()
+                .map(row -> new Customer(
+                        row.get("customerId", Long.class),
+                        KeysetColumns.value(row, selected, "firstName", String.class),
+                        KeysetColumns.value(row, selected, "lastName", String.class),
+                        KeysetColumns.value(row, selected, "email", String.class),
+                        KeysetColumns.value(row, selected, "contactNumber", String.class),
+                        KeysetColumns.value(row, selected, "version", Long.class)))
+                .toList();
+    }
+}
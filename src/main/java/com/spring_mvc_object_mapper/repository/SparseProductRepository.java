@@ -0,0 +1,15 @@
+package com.spring_mvc_object_mapper.repository;
+
+import com.spring_mvc_object_mapper.entity.Product;
+
+import java.util.List;
+import java.util.Set;
+
+public interface SparseProductRepository {
+
+    /**
+     * One keyset page of products with only the id and the named columns loaded; every other property is null.
+     * The products are not managed.
+     */
+    List<Product> findPageWithColumns(Long productId, int limit, Set<String> columns);
+}
@@ -0,0 +1,32 @@
+package com.spring_mvc_object_mapper.repository;
+
+import com.spring_mvc_object_mapper.entity.Product;
+import jakarta.persistence.EntityManager;
+
+import java.util.List;
+import java.util.Set;
+
+class SparseProductRepositoryImpl implements SparseProductRepository {
+
+    private static final List<String> COLUMNS = List.of("name", "description", "price", "quantityInStock", "version");
+
+    private final EntityManager entityManager;
+
+    SparseProductRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Product> findPageWithColumns(Long productId, int limit, Set<String> columns) {
+        List<String> selected = COLUMNS.stream().filter(columns::contains).toList();
+        return KeysetColumns.page(entityManager, Product.class, "productId", selected, productId, limit).stream()
+                .map(row -> new Product(
+                        row.get("productId", Long.class),
+                        KeysetColumns.value(row, selected, "name", String.class),
+                        KeysetColumns.value(row, selected, "description", String.class),
+                        KeysetColumns.value(row, selected, "price", Double.class),
+                        KeysetColumns.value(row, selected, "quantityInStock", Integer.class),
+                        KeysetColumns.value(row, selected, "version", Long.class)))
+                .toList();
+    }
+}
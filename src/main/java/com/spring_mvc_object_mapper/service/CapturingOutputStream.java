@@ -0,0 +1,70 @@
+package com.spring_mvc_object_mapper.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Passes everything through to the target and keeps a copy until more than {@code limit} bytes have been written,
+ * after which the copy is dropped. Closing it flushes the target but leaves it open.
+ */
+final class CapturingOutputStream extends OutputStream {
+
+    private final OutputStream target;
+    private final int limit;
+    private List<byte[]> chunks;
+    private int size;
+
+    CapturingOutputStream(OutputStream target, int limit) {
+        this.target = target;
+        this.limit = limit;
+        this.chunks = limit > 0 ? new ArrayList<>() : null;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        target.write(b, off, len);
+        if (chunks == null) {
+            return;
+        }
+        if (size + len > limit) {
+            chunks = null;
+            return;
+        }
+        chunks.add(Arrays.copyOfRange(b, off, off + len));
+        size += len;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        target.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        target.flush();
+    }
+
+    /**
+     * The bytes written so far, or {@code null} if there were more than the limit.
+     */
+    byte[] captured() {
+        if (chunks == null) {
+            return null;
+        }
+        byte[] captured = new byte[size];
+        int position = 0;
+        for (byte[] chunk : chunks) {
+            System.arraycopy(chunk, 0, captured, position, chunk.length);
+            position += chunk.length;
+        }
+        return captured;
+    }
+}
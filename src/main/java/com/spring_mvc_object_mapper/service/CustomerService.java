@@ -1,69 +1,133 @@
 package com.spring_mvc_object_mapper.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.spring_mvc_object_mapper.config.CacheConfig;
+import com.spring_mvc_object_mapper.config.MetricsConfig;
+import com.spring_mvc_object_mapper.dto.FieldSet;
 import com.spring_mvc_object_mapper.entity.Customer;
-import com.spring_mvc_object_mapper.entity.Order;
 import com.spring_mvc_object_mapper.exception.ConvertExceptionFromObject;
 import com.spring_mvc_object_mapper.exception.ConvertExceptionFromString;
 import com.spring_mvc_object_mapper.exception.CustomerNotFoundException;
 import com.spring_mvc_object_mapper.repository.CustomerRepository;
 import com.spring_mvc_object_mapper.repository.OrderRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Optional;
 
 @Service
+@Timed(MetricsConfig.SERVICE_CALLS)
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
-    private final ObjectMapper objectMapper;
+    private final ObjectReader customerReader;
+    private final ObjectWriter customerWriter;
     private final OrderRepository orderRepository;
+    private final JsonBytesCache jsonCache;
+    private final JsonImporter jsonImporter;
 
-    public CustomerService(CustomerRepository customerRepository, ObjectMapper objectMapper, OrderRepository orderRepository) {
+    public CustomerService(CustomerRepository customerRepository, ObjectMapper objectMapper,
+                           OrderRepository orderRepository, JsonBytesCache jsonCache, JsonImporter jsonImporter) {
         this.customerRepository = customerRepository;
-        this.objectMapper = objectMapper;
+        this.customerReader = objectMapper.readerFor(Customer.class);
+        this.customerWriter = objectMapper.writerFor(Customer.class);
         this.orderRepository = orderRepository;
+        this.jsonCache = jsonCache;
+        this.jsonImporter = jsonImporter;
     }
 
-    public List<Customer> getAllCustomers() {
-        return customerRepository.findAll();
+    /**
+     * One page of customers; with a field selection only the columns it names are read.
+     */
+    public List<Customer> getCustomers(Long after, int limit, FieldSet fields) {
+        if (!fields.isAll()) {
+            return customerRepository.findPageWithColumns(after, limit, fields.names());
+        }
+        return customerRepository.findByCustomerIdGreaterThanOrderByCustomerIdAsc(after, Limit.of(limit));
     }
 
+    @Cacheable(cacheNames = CacheConfig.CUSTOMERS, key = "#id")
     public Customer getCustomerById(Long id) {
         return customerRepository.findById(id).orElseThrow(()
                 -> new CustomerNotFoundException("Customer with id " + id + " not found"));
     }
 
-    public String getCustomerAsJson(Long id) {
-        Customer customer = getCustomerById(id);
-        try {
-            return objectMapper.writeValueAsString(customer);
-        } catch (Exception e) {
-            throw new ConvertExceptionFromObject("Error converting from object");
-        }
+    @Cacheable(cacheNames = CacheConfig.CUSTOMERS, key = "#id", unless = "#result == null")
+    public Optional<Customer> findCustomerById(Long id) {
+        return customerRepository.findById(id);
+    }
+
+    public long getCustomerVersion(Long id) {
+        return customerRepository.findVersionByCustomerId(id)
+                .orElseThrow(() -> new CustomerNotFoundException("Customer with id " + id + " not found"));
+    }
+
+    /**
+     * Fingerprint of the ids and versions on the page {@link #getCustomers} returns, read without loading the customers.
+     */
+    public long getCustomersVersion(Long after, int limit) {
+        Fingerprint fingerprint = new Fingerprint();
+        customerRepository.findVersionsByCustomerIdGreaterThan(after, Limit.of(limit))
+                .forEach(row -> fingerprint.add(row.id()).add(row.version()));
+        return fingerprint.value();
+    }
+
+    /**
+     * Streams the customer's JSON to {@code body}, reusing the cached bytes, or their gzipped copy,
+     * while its version is unchanged.
+     */
+    public void writeCustomerAsJson(Long id, long version, JsonBytesCache.Target body) throws IOException {
+        jsonCache.write(Customer.class, id, version, body, target -> {
+            Customer customer = customerRepository.findById(id).orElseThrow(()
+                    -> new CustomerNotFoundException("Customer with id " + id + " not found"));
+            try {
+                customerWriter.writeValue(target, customer);
+            } catch (JsonProcessingException e) {
+                throw new ConvertExceptionFromObject("Error converting from object");
+            }
+            return customer.getVersion();
+        });
     }
 
-    public Customer createCustomerFromJson(String customerJson) {
+    /**
+     * Reads a single customer, which is returned without being saved, or an array or newline-delimited stream of
+     * customers, which are saved as new customers in chunks as they are parsed, each chunk committed on its own.
+     */
+    public JsonImport<Customer> createCustomersFromJson(InputStream customerJson) {
         try {
-            return objectMapper.readValue(customerJson, Customer.class);
-        } catch (Exception e) {
+            return jsonImporter.read(customerReader, customerJson, (List<Customer> customers) -> {
+                customers.forEach(customer -> customer.setCustomerId(null));
+                customerRepository.saveAll(customers);
+            });
+        } catch (IOException e) {
             throw new ConvertExceptionFromString("Error converting from string");
         }
     }
 
+    @CachePut(cacheNames = CacheConfig.CUSTOMERS, key = "#result.customerId")
     public Customer createCustomer(Customer customer) {
         return customerRepository.save(customer);
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, key = "#id")
     public void deleteCustomer(Long id) {
         if (!customerRepository.existsById(id)) {
             throw new CustomerNotFoundException("Customer with id " + id + " not found");
         }
-        for(Order order : orderRepository.findAll()) {
-            if(order.getCustomer().getCustomerId().equals(id)) {
-                orderRepository.delete(order);
-            }
-        }
+        orderRepository.deleteByCustomerId(id);
         customerRepository.delete(getCustomerById(id));
+        jsonCache.evict(Customer.class, id);
     }
 }
\ No newline at end of file
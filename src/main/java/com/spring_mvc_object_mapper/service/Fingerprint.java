@@ -0,0 +1,27 @@
+package com.spring_mvc_object_mapper.service;
+
+/**
+ * Order-sensitive 64-bit hash of a sequence of ids and versions, used where a representation spans several rows.
+ */
+final class Fingerprint {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final long NULL_VALUE = Long.MIN_VALUE;
+
+    private long hash = GOLDEN_GAMMA;
+
+    Fingerprint add(Long value) {
+        hash = mix(hash ^ (value != null ? value : NULL_VALUE)) + GOLDEN_GAMMA;
+        return this;
+    }
+
+    long value() {
+        return hash;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
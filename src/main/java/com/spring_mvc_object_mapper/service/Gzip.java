@@ -0,0 +1,34 @@
+package com.spring_mvc_object_mapper.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip at a chosen {@link java.util.zip.Deflater} level, which {@link GZIPOutputStream} does not take directly.
+ */
+final class Gzip {
+
+    private Gzip() {
+    }
+
+    static byte[] compress(byte[] bytes, int level) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (OutputStream gzip = new LeveledGzipOutputStream(compressed, level)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+
+        LeveledGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out);
+            def.setLevel(level);
+        }
+    }
+}
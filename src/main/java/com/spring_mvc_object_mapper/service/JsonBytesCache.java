@@ -0,0 +1,168 @@
+package com.spring_mvc_object_mapper.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+
+/**
+ * UTF-8 JSON of single entities, keyed by entity type and id and tagged with the version it was rendered from.
+ * A lookup with any other version is a miss, so a write is never served stale even before it is evicted.
+ * The cache is bounded by the total size of the stored payloads rather than by the number of entries.
+ * <p>
+ * Payloads of at least {@code server.compression.min-response-size} are also kept gzipped, compressed once per version
+ * at {@code json-cache.gzip-level}, for clients that accept it. The level defaults to the best compression, which costs
+ * a few times the CPU of the fastest but is paid only on the first gzip request for each version.
+ */
+@Component
+public class JsonBytesCache {
+
+    /** Rough per-entry cost of the key, the entry and the array header on top of the payload itself. */
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final Cache<Key, Entry> cache;
+    private final int maxEntryBytes;
+    private final int gzipLevel;
+    private final int gzipMinBytes;
+
+    @Autowired
+    public JsonBytesCache(@Value("${json-cache.max-size:16MB}") DataSize maxSize,
+                          @Value("${json-cache.max-entry-size:256KB}") DataSize maxEntrySize,
+                          @Value("${json-cache.gzip-level:9}") int gzipLevel,
+                          @Value("${server.compression.min-response-size:2KB}") DataSize gzipMinSize) {
+        this.maxEntryBytes = Math.toIntExact(maxEntrySize.toBytes());
+        this.gzipLevel = gzipLevel;
+        this.gzipMinBytes = Math.toIntExact(gzipMinSize.toBytes());
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Key key, Entry entry) -> entry.size() + ENTRY_OVERHEAD_BYTES)
+                .build();
+    }
+
+    JsonBytesCache(DataSize maxSize, DataSize maxEntrySize) {
+        this(maxSize, maxEntrySize, Deflater.BEST_COMPRESSION, DataSize.ofKilobytes(2));
+    }
+
+    /**
+     * Writes the entity's JSON to {@code target}: the cached bytes if they match {@code version}, otherwise whatever
+     * {@code renderer} streams, of which a copy is cached when it is no larger than {@code json-cache.max-entry-size}.
+     * A payload over that size is remembered as such for its version and then streamed without taking a copy.
+     */
+    public void write(Class<?> type, Long id, long version, OutputStream target, Renderer renderer) throws IOException {
+        write(type, id, version, Target.identity(target), renderer);
+    }
+
+    /**
+     * Like {@link #write(Class, Long, long, OutputStream, Renderer)}, but a cached payload goes out gzipped when the
+     * target accepts gzip and the payload is at least {@code server.compression.min-response-size}, and with its
+     * length either way. Rendered and oversized payloads are streamed uncompressed, for the container to compress.
+     */
+    public void write(Class<?> type, Long id, long version, Target target, Renderer renderer) throws IOException {
+        Key key = new Key(type, id);
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.version() == version) {
+            if (entry.json() == null) {
+                renderer.render(new CapturingOutputStream(target.open(false, -1), 0));
+            } else if (target.acceptsGzip() && entry.json().length >= gzipMinBytes) {
+                byte[] gzip = entry.gzip() != null ? entry.gzip() : gzip(key, entry);
+                target.open(true, gzip.length).write(gzip);
+            } else {
+                target.open(false, entry.json().length).write(entry.json());
+            }
+            return;
+        }
+        CapturingOutputStream capture = new CapturingOutputStream(target.open(false, -1), maxEntryBytes);
+        long renderedVersion = renderer.render(capture);
+        cache.put(key, new Entry(renderedVersion, capture.captured(), null));
+    }
+
+    byte[] get(Class<?> type, Long id, long version) {
+        Entry entry = cache.getIfPresent(new Key(type, id));
+        return entry != null && entry.version() == version ? entry.json() : null;
+    }
+
+    void put(Class<?> type, Long id, long version, byte[] json) {
+        cache.put(new Key(type, id), new Entry(version, json, null));
+    }
+
+    public void evict(Class<?> type, Long id) {
+        cache.invalidate(new Key(type, id));
+    }
+
+    /**
+     * Compresses the entry's payload and stores it alongside, unless the entry has been replaced meanwhile.
+     */
+    private byte[] gzip(Key key, Entry entry) {
+        byte[] gzip = Gzip.compress(entry.json(), gzipLevel);
+        cache.asMap().replace(key, entry, new Entry(entry.version(), entry.json(), gzip));
+        return gzip;
+    }
+
+    long weightedSize() {
+        return cache.policy().eviction().orElseThrow().weightedSize().orElse(0);
+    }
+
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    @FunctionalInterface
+    public interface Renderer {
+
+        /**
+         * Serializes the entity to {@code outputStream} and returns the version it was rendered from.
+         */
+        long render(OutputStream outputStream) throws IOException;
+    }
+
+    /**
+     * The response a payload is written to.
+     */
+    public interface Target {
+
+        boolean acceptsGzip();
+
+        /**
+         * Marks the response gzip encoded if {@code gzip} and sets its length unless it is {@code -1}, then returns
+         * the stream to write the body to.
+         */
+        OutputStream open(boolean gzip, int length) throws IOException;
+
+        /**
+         * A target that takes only uncompressed payloads.
+         */
+        static Target identity(OutputStream outputStream) {
+            return new Target() {
+                @Override
+                public boolean acceptsGzip() {
+                    return false;
+                }
+
+                @Override
+                public OutputStream open(boolean gzip, int length) {
+                    return outputStream;
+                }
+            };
+        }
+    }
+
+    private record Key(Class<?> type, Long id) {
+    }
+
+    /**
+     * {@code json} is {@code null} when the entity rendered at {@code version} was too large to keep, and {@code gzip}
+     * until the payload is first requested gzipped.
+     */
+    private record Entry(long version, byte[] json, byte[] gzip) {
+
+        int size() {
+            return (json != null ? json.length : 0) + (gzip != null ? gzip.length : 0);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.spring_mvc_object_mapper.service;
+
+/**
+ * Outcome of a from-json upload: the parsed object when the body held a single one, otherwise the number of
+ * elements of an array or newline-delimited upload that were saved.
+ */
+public record JsonImport<T>(T value, long savedCount) {
+
+    static <T> JsonImport<T> single(T value) {
+        return new JsonImport<>(value, 0);
+    }
+
+    static <T> JsonImport<T> bulk(long savedCount) {
+        return new JsonImport<>(null, savedCount);
+    }
+
+    public boolean isBulk() {
+        return value == null;
+    }
+}
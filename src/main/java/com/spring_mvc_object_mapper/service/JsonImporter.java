@@ -0,0 +1,100 @@
+package com.spring_mvc_object_mapper.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.spring_mvc_object_mapper.exception.ConvertExceptionFromString;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Parses from-json uploads straight from the request stream. A single object is returned as parsed. A top-level
+ * array or newline-delimited objects are validated one element at a time and handed to a saver in chunks of
+ * {@code json-import.chunk-size}, with the persistence context flushed and cleared after every chunk, so memory
+ * stays flat however large the upload is. Each chunk is saved and committed in a transaction of its own, so no
+ * connection or row lock is held while the client is still sending. An invalid element stops the import: the chunks
+ * before it stay saved and the error says how many elements that was.
+ */
+@Component
+public class JsonImporter {
+
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionOperations transactions;
+    private final int chunkSize;
+
+    public JsonImporter(Validator validator, EntityManager entityManager, TransactionOperations transactions,
+                        @Value("${json-import.chunk-size:500}") int chunkSize) {
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactions = transactions;
+        this.chunkSize = chunkSize;
+    }
+
+    public <T> JsonImport<T> read(ObjectReader reader, InputStream json, Consumer<List<T>> saver) throws IOException {
+        try (JsonParser parser = reader.createParser(json)) {
+            JsonToken first = parser.nextToken();
+            if (first == null || first == JsonToken.VALUE_NULL) {
+                throw new JsonParseException(parser, "No content to import");
+            }
+            List<T> chunk = new ArrayList<>(chunkSize);
+            long count = 0;
+            if (first == JsonToken.START_ARRAY) {
+                parser.clearCurrentToken();
+            } else {
+                T value = reader.readValue(parser);
+                if (parser.nextToken() == null) {
+                    return JsonImport.single(value);
+                }
+                chunk.add(validated(value, count++, 0));
+            }
+            MappingIterator<T> values = reader.readValues(parser);
+            while (values.hasNextValue()) {
+                chunk.add(validated(values.nextValue(), count, count - chunk.size()));
+                count++;
+                if (chunk.size() == chunkSize) {
+                    save(chunk, saver);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                save(chunk, saver);
+            }
+            return JsonImport.bulk(count);
+        }
+    }
+
+    private <T> T validated(T value, long index, long savedCount) {
+        Set<ConstraintViolation<T>> violations = validator.validate(value);
+        if (!violations.isEmpty()) {
+            throw new ConvertExceptionFromString("Invalid element at index " + index + ", after " + savedCount
+                    + " saved: " + violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        return value;
+    }
+
+    private <T> void save(List<T> chunk, Consumer<List<T>> saver) {
+        transactions.executeWithoutResult(status -> {
+            saver.accept(chunk);
+            entityManager.flush();
+            entityManager.clear();
+        });
+        chunk.clear();
+    }
+}
@@ -0,0 +1,278 @@
+package com.spring_mvc_object_mapper.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.spring_mvc_object_mapper.dto.OrderTicket;
+import com.spring_mvc_object_mapper.entity.Order;
+import com.spring_mvc_object_mapper.exception.CustomerNotFoundException;
+import com.spring_mvc_object_mapper.exception.InvalidOrderException;
+import com.spring_mvc_object_mapper.exception.OrderQueueFullException;
+import com.spring_mvc_object_mapper.exception.OrderTicketNotFoundException;
+import com.spring_mvc_object_mapper.exception.ProductNotFoundException;
+import com.spring_mvc_object_mapper.exception.ProductOutOfStockException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Places orders accepted with {@code Prefer: respond-async} off the request thread. Orders wait in a queue of
+ * {@code orders.async.queue-capacity} and a single worker places up to {@code orders.async.max-batch-size} of them
+ * at a time through {@link OrderService#createOrders}, so the stock of a product ordered many times in a batch is
+ * decremented once, in one transaction, instead of every request queueing for the same row lock. When a batch is
+ * rolled back, for an unknown customer or a product out of stock, its orders are placed again one by one so only the
+ * failing ones fail.
+ * <p>
+ * A ticket is kept while its order waits and for {@code orders.async.ticket-ttl} after its outcome. A failed ticket
+ * carries the message of an unknown customer or product, a product out of stock or an invalid order, and a generic
+ * reason for anything else, which is logged instead. Queue depth, batch sizes and the time from acceptance to outcome
+ * are exported as {@code orders.async.queue.depth}, {@code orders.async.batch.size} and
+ * {@code orders.async.latency}, and orders turned away for a full queue are counted under
+ * {@code orders.async.rejected}.
+ */
+@Service
+public class OrderPlacementQueue implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderPlacementQueue.class);
+    private static final long POLL_INTERVAL_MILLIS = 100;
+    private static final String GENERIC_FAILURE = "Order could not be placed";
+
+    private final OrderService orderService;
+    private final BlockingQueue<Pending> queue;
+    private final int maxBatchSize;
+    private final Cache<String, CompletableFuture<OrderTicket>> tickets;
+    private final DistributionSummary batchSizes;
+    private final Timer placedLatency;
+    private final Timer failedLatency;
+    private final Counter rejected;
+    private volatile boolean running;
+    private Thread worker;
+
+    public OrderPlacementQueue(OrderService orderService, MeterRegistry meterRegistry,
+                               @Value("${orders.async.queue-capacity:10000}") int queueCapacity,
+                               @Value("${orders.async.max-batch-size:100}") int maxBatchSize,
+                               @Value("${orders.async.ticket-ttl:10m}") Duration ticketTtl) {
+        this.orderService = orderService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.tickets = Caffeine.newBuilder()
+                .expireAfter(new TicketExpiry(ticketTtl.toNanos()))
+                .build();
+        Gauge.builder("orders.async.queue.depth", queue, BlockingQueue::size)
+                .description("Orders accepted and waiting to be placed")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("orders.async.batch.size")
+                .description("Orders placed together in one transaction")
+                .register(meterRegistry);
+        this.placedLatency = latency(meterRegistry, "placed");
+        this.failedLatency = latency(meterRegistry, "failed");
+        this.rejected = Counter.builder("orders.async.rejected")
+                .description("Orders turned away because the queue was full")
+                .register(meterRegistry);
+    }
+
+    private static Timer latency(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("orders.async.latency")
+                .description("Time from accepting an order to its outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the order and returns its pending ticket, or throws {@link OrderQueueFullException} without queueing it.
+     */
+    public OrderTicket submit(Order order) {
+        Pending pending = new Pending(UUID.randomUUID().toString(), order, System.nanoTime(),
+                new CompletableFuture<>());
+        tickets.put(pending.ticketId(), pending.outcome());
+        if (!queue.offer(pending)) {
+            tickets.invalidate(pending.ticketId());
+            rejected.increment();
+            throw new OrderQueueFullException("Order queue is full, retry later");
+        }
+        return OrderTicket.pending(pending.ticketId());
+    }
+
+    public OrderTicket getTicket(String ticketId) {
+        return outcomeOf(ticketId).getNow(OrderTicket.pending(ticketId));
+    }
+
+    /**
+     * The ticket once its order is placed or has failed, or still pending after {@code timeout}.
+     */
+    public CompletableFuture<OrderTicket> awaitTicket(String ticketId, Duration timeout) {
+        return outcomeOf(ticketId).copy()
+                .completeOnTimeout(OrderTicket.pending(ticketId), timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private CompletableFuture<OrderTicket> outcomeOf(String ticketId) {
+        CompletableFuture<OrderTicket> outcome = tickets.getIfPresent(ticketId);
+        if (outcome == null) {
+            throw new OrderTicketNotFoundException("Order ticket " + ticketId + " not found");
+        }
+        return outcome;
+    }
+
+    /**
+     * Places the next batch of queued orders on the calling thread and returns its size.
+     */
+    int placeQueued() {
+        return placeBatch(queue.poll());
+    }
+
+    private int placeBatch(Pending first) {
+        if (first == null) {
+            return 0;
+        }
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        batch.add(first);
+        queue.drainTo(batch, maxBatchSize - 1);
+        batchSizes.record(batch.size());
+        try {
+            List<Order> saved = orderService.createOrders(batch.stream()
+                    .map(pending -> copyOf(pending.order()))
+                    .toList());
+            for (int i = 0; i < batch.size(); i++) {
+                placed(batch.get(i), saved.get(i));
+            }
+        } catch (RuntimeException batchFailure) {
+            if (batch.size() == 1) {
+                failed(first, batchFailure);
+            } else {
+                batch.forEach(this::placeAlone);
+            }
+        }
+        return batch.size();
+    }
+
+    private void placeAlone(Pending pending) {
+        try {
+            Order order = copyOf(pending.order());
+            placed(pending, orderService.createOrder(order, order.getCustomer(), order.getProducts()));
+        } catch (RuntimeException e) {
+            failed(pending, e);
+        }
+    }
+
+    /**
+     * A fresh copy for each attempt, since a rolled-back attempt leaves its id, customer and prices on the order.
+     */
+    private static Order copyOf(Order order) {
+        return new Order(null, order.getCustomer(),
+                order.getProducts() != null ? new ArrayList<>(order.getProducts()) : null,
+                order.getOrderDate(), order.getShippingAddress(), order.getTotalPrice(), order.getOrderStatus(), null);
+    }
+
+    private void placed(Pending pending, Order order) {
+        placedLatency.record(System.nanoTime() - pending.acceptedNanos(), TimeUnit.NANOSECONDS);
+        complete(pending, OrderTicket.placed(pending.ticketId(), order.getOrderId()));
+    }
+
+    private void failed(Pending pending, RuntimeException e) {
+        failedLatency.record(System.nanoTime() - pending.acceptedNanos(), TimeUnit.NANOSECONDS);
+        String reason;
+        if (e instanceof CustomerNotFoundException || e instanceof ProductNotFoundException
+                || e instanceof ProductOutOfStockException || e instanceof InvalidOrderException) {
+            log.debug("Order for ticket {} was not placed", pending.ticketId(), e);
+            reason = e.getMessage();
+        } else {
+            log.warn("Order for ticket {} was not placed", pending.ticketId(), e);
+            reason = GENERIC_FAILURE;
+        }
+        complete(pending, OrderTicket.failed(pending.ticketId(), reason));
+    }
+
+    /**
+     * Completes the ticket and writes it again, so its time to live starts from the outcome.
+     */
+    private void complete(Pending pending, OrderTicket ticket) {
+        pending.outcome().complete(ticket);
+        tickets.put(pending.ticketId(), pending.outcome());
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::work, "order-placement");
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the web server, so orders accepted until then are still placed.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void work() {
+        while (running || !queue.isEmpty()) {
+            try {
+                placeBatch(queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Placing queued orders failed", e);
+            }
+        }
+    }
+
+    /**
+     * Never expires a ticket whose order is still queued; a ticket with an outcome expires {@code ttlNanos} after it
+     * is written with that outcome.
+     */
+    private record TicketExpiry(long ttlNanos) implements Expiry<String, CompletableFuture<OrderTicket>> {
+
+        @Override
+        public long expireAfterCreate(String ticketId, CompletableFuture<OrderTicket> outcome, long currentTime) {
+            return outcome.isDone() ? ttlNanos : Long.MAX_VALUE;
+        }
+
+        @Override
+        public long expireAfterUpdate(String ticketId, CompletableFuture<OrderTicket> outcome, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(ticketId, outcome, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String ticketId, CompletableFuture<OrderTicket> outcome, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private record Pending(String ticketId, Order order, long acceptedNanos, CompletableFuture<OrderTicket> outcome) {
+    }
+}
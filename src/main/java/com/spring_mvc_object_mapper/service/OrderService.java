@@ -1,40 +1,135 @@
 package com.spring_mvc_object_mapper.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.spring_mvc_object_mapper.config.MetricsConfig;
+import com.spring_mvc_object_mapper.dto.FieldSet;
+import com.spring_mvc_object_mapper.dto.OrderDetail;
+import com.spring_mvc_object_mapper.dto.OrderExpansion;
+import com.spring_mvc_object_mapper.dto.OrderPage;
 import com.spring_mvc_object_mapper.entity.Customer;
 import com.spring_mvc_object_mapper.entity.Order;
 import com.spring_mvc_object_mapper.entity.Product;
 import com.spring_mvc_object_mapper.exception.*;
 import com.spring_mvc_object_mapper.repository.CustomerRepository;
+import com.spring_mvc_object_mapper.repository.OrderLine;
 import com.spring_mvc_object_mapper.repository.OrderRepository;
-import com.spring_mvc_object_mapper.repository.ProductRepository;
+import com.spring_mvc_object_mapper.repository.OrderVersionRow;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(MetricsConfig.SERVICE_CALLS)
 public class OrderService {
 
+    private static final int EXPORT_CLEAR_INTERVAL = 500;
+
     private final OrderRepository orderRepository;
     private final CustomerRepository customerRepository;
-    private final ProductRepository productRepository;
+    private final CustomerService customerService;
     private final ProductService productService;
-    private final ObjectMapper objectMapper;
+    private final ObjectReader orderReader;
+    private final ObjectWriter orderWriter;
+    private final ObjectWriter orderDetailWriter;
+    private final EntityManager entityManager;
+    private final JsonBytesCache jsonCache;
+    private final JsonImporter jsonImporter;
 
     public OrderService(OrderRepository orderRepository, CustomerRepository customerRepository,
-                        @Lazy ProductRepository productRepository,
-                        @Lazy ProductService productService, ObjectMapper objectMapper) {
+                        CustomerService customerService, @Lazy ProductService productService,
+                        ObjectMapper objectMapper, EntityManager entityManager, JsonBytesCache jsonCache,
+                        JsonImporter jsonImporter) {
         this.orderRepository = orderRepository;
         this.customerRepository = customerRepository;
-        this.productRepository = productRepository;
+        this.customerService = customerService;
         this.productService = productService;
-        this.objectMapper = objectMapper;
+        this.orderReader = objectMapper.readerFor(Order.class);
+        this.orderWriter = objectMapper.writerFor(Order.class);
+        this.orderDetailWriter = objectMapper.writerFor(OrderDetail.class);
+        this.entityManager = entityManager;
+        this.jsonCache = jsonCache;
+        this.jsonImporter = jsonImporter;
+    }
+
+    /**
+     * One page of orders, joined only to the customers and products that {@code fields} and {@code expansion} render.
+     * Product ids alone are read from the order lines.
+     */
+    @Transactional(readOnly = true)
+    public OrderPage getOrders(Long after, int limit, FieldSet fields, OrderExpansion expansion) {
+        boolean withCustomer = expansion.includeCustomers() || expansion.customer() && fields.includes("customer");
+        boolean withProducts = expansion.includeProducts() || expansion.products() && fields.includes("products");
+        List<Order> orders;
+        if (withCustomer && withProducts) {
+            orders = orderRepository.findPageWithCustomerAndProducts(after, limit);
+        } else if (withProducts) {
+            orders = orderRepository.findPageWithProducts(after, limit);
+        } else if (withCustomer) {
+            orders = orderRepository.findPageWithCustomer(after, Limit.of(limit));
+        } else {
+            orders = orderRepository.findByOrderIdGreaterThanOrderByOrderIdAsc(after, Limit.of(limit));
+        }
+        Map<Long, List<Long>> productIds = Map.of();
+        if (!expansion.products() && fields.includes("productIds") && !orders.isEmpty()) {
+            productIds = withProducts ? productIdsOf(orders) : groupByOrder(orderRepository.findLinesByOrderIdIn(
+                    orders.stream().map(Order::getOrderId).toList()));
+        }
+        return OrderPage.of(orders, fields, expansion, productIds);
+    }
+
+    private static Map<Long, List<Long>> productIdsOf(List<Order> orders) {
+        return orders.stream().collect(Collectors.toMap(Order::getOrderId, order -> order.getProducts().stream()
+                .map(Product::getProductId)
+                .sorted()
+                .toList()));
+    }
+
+    private static Map<Long, List<Long>> groupByOrder(Collection<OrderLine> lines) {
+        return lines.stream().collect(Collectors.groupingBy(OrderLine::orderId,
+                Collectors.mapping(OrderLine::productId, Collectors.toList())));
     }
 
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+    /**
+     * The order, joined only to the customer and products that {@code fields} renders.
+     */
+    @Transactional(readOnly = true)
+    public OrderDetail getOrderDetail(Long id, FieldSet fields) {
+        boolean withCustomer = fields.includes("customer");
+        boolean withProducts = fields.includes("products");
+        Optional<Order> order;
+        if (withCustomer && withProducts) {
+            order = orderRepository.findWithCustomerAndProductsByOrderId(id);
+        } else if (withProducts) {
+            order = orderRepository.findWithProductsByOrderId(id);
+        } else if (withCustomer) {
+            order = orderRepository.findWithCustomerByOrderId(id);
+        } else {
+            order = orderRepository.findByOrderId(id);
+        }
+        return order.map(found -> OrderDetail.of(found, fields))
+                .orElseThrow(() -> new OrderNotFoundException("Order with ID: " + id + " not found"));
     }
 
     public Order getOrderById(Long id) {
@@ -42,45 +137,187 @@ public class OrderService {
                 -> new OrderNotFoundException("Order with ID: " + id + " not found"));
     }
 
-    public String getOrderAsJson(Long id) {
-        Order order = getOrderById(id);
-        try {
-            return objectMapper.writeValueAsString(order);
-        } catch (Exception e) {
-            throw new ConvertExceptionFromObject("Error converting from Object");
+    /**
+     * Version of the order's JSON, which embeds its customer and products: a fingerprint of the ids and versions
+     * of all three, read without loading the entities. Equal to {@link #getOrderVersion(OrderDetail)} for the same state.
+     */
+    public long getOrderVersion(Long id) {
+        List<OrderVersionRow> rows = orderRepository.findVersionRowsByOrderId(id);
+        if (rows.isEmpty()) {
+            throw new OrderNotFoundException("Order with ID: " + id + " not found");
         }
+        return fingerprint(rows);
     }
 
-    public Order createOrderFromJson(String orderJson) {
+    public long getOrderVersion(OrderDetail order) {
+        Fingerprint fingerprint = new Fingerprint()
+                .add(order.orderId())
+                .add(order.version())
+                .add(order.customer() != null ? order.customer().customerId() : null)
+                .add(order.customer() != null ? order.customer().version() : null);
+        order.products().stream()
+                .sorted(Comparator.comparing(OrderDetail.ProductDetail::productId))
+                .forEach(product -> fingerprint.add(product.productId()).add(product.version()));
+        return fingerprint.value();
+    }
+
+    public long getOrdersVersion(Long after, int limit) {
+        return fingerprint(orderRepository.findVersionRowsByOrderIdGreaterThan(after, limit));
+    }
+
+    private static long fingerprint(List<OrderVersionRow> rows) {
+        Fingerprint fingerprint = new Fingerprint();
+        Long orderId = null;
+        for (OrderVersionRow row : rows) {
+            if (!row.orderId().equals(orderId)) {
+                orderId = row.orderId();
+                fingerprint.add(row.orderId()).add(row.orderVersion()).add(row.customerId()).add(row.customerVersion());
+            }
+            if (row.productId() != null) {
+                fingerprint.add(row.productId()).add(row.productVersion());
+            }
+        }
+        return fingerprint.value();
+    }
+
+    /**
+     * Streams the order's JSON to {@code body}, reusing the cached bytes, or their gzipped copy,
+     * while {@code version} matches.
+     */
+    @Transactional(readOnly = true)
+    public void writeOrderAsJson(Long id, long version, JsonBytesCache.Target body) throws IOException {
+        jsonCache.write(Order.class, id, version, body, target -> {
+            OrderDetail order = getOrderDetail(id, FieldSet.ALL);
+            try {
+                orderDetailWriter.writeValue(target, order);
+            } catch (JsonProcessingException e) {
+                throw new ConvertExceptionFromObject("Error converting from Object");
+            }
+            return getOrderVersion(order);
+        });
+    }
+
+    /**
+     * Writes every order as newline-delimited JSON while the rows are read from a database cursor. Orders are written
+     * in chunks of {@value #EXPORT_CLEAR_INTERVAL}, whose products are loaded with one statement per chunk, and the
+     * persistence context is cleared after each so memory stays flat regardless of table size.
+     */
+    @Transactional(readOnly = true)
+    public void exportOrders(OutputStream outputStream) throws IOException {
+        try (Stream<Order> orders = orderRepository.streamAllOrderByOrderId();
+             JsonGenerator generator = orderWriter.createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            List<Order> chunk = new ArrayList<>(EXPORT_CLEAR_INTERVAL);
+            Iterator<Order> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == EXPORT_CLEAR_INTERVAL || !iterator.hasNext()) {
+                    orderRepository.fetchProductsByOrderIdIn(chunk.stream().map(Order::getOrderId).toList());
+                    for (Order order : chunk) {
+                        orderWriter.writeValue(generator, order);
+                        generator.writeRaw('\n');
+                    }
+                    generator.flush();
+                    entityManager.clear();
+                    chunk.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a single order, which is returned without being saved, or an array or newline-delimited stream of
+     * orders, which are placed chunk by chunk through {@link #createOrders} as they are parsed, each chunk committed
+     * on its own.
+     */
+    public JsonImport<Order> createOrdersFromJson(InputStream orderJson) {
         try {
-            return objectMapper.readValue(orderJson, Order.class);
-        } catch (Exception e) {
+            return jsonImporter.read(orderReader, orderJson, this::createOrders);
+        } catch (IOException e) {
             throw new ConvertExceptionFromString("Error converting from String");
         }
     }
 
+    @Transactional
     public Order createOrder(Order order, Customer customer, List<Product> products) {
-        Customer persistedCustomer = customerRepository.findById(customer.getCustomerId())
+        requirePlaceable("Order", customer, products);
+        Customer persistedCustomer = customerService.findCustomerById(customer.getCustomerId())
                 .orElseThrow(() -> new CustomerNotFoundException("Customer with ID: " + customer.getCustomerId() + " not found"));
         order.setCustomer(persistedCustomer);
 
-        List<Product> persistedProducts = products.stream()
-                .map(product -> productRepository.findById(product.getProductId())
-                        .orElseThrow(() -> new ProductNotFoundException("Product with ID: " + product.getProductId() + " not found")))
-                .peek(product -> {
-                    if (product.getQuantityInStock() < 1) {
-                        throw new ProductOutOfStockException("Product with ID: " + product.getProductId() + " is out of stock");
-                    }
-                })
+        Map<Long, Product> reservedProducts = productService.reserveStock(quantitiesOf(products.stream()));
+        attachProducts(order, products, reservedProducts);
+        return orderRepository.save(order);
+    }
+
+    /**
+     * Creates all orders in one transaction: every order is checked, customers are looked up and stock is reserved
+     * for the whole batch up front, then the orders and their {@code orders_products} rows are written with JDBC
+     * batch inserts.
+     */
+    @Transactional
+    public List<Order> createOrders(List<Order> orders) {
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            if (order == null) {
+                throw new InvalidOrderException("Order [" + i + "] cannot be null");
+            }
+            requirePlaceable("Order [" + i + "]", order.getCustomer(), order.getProducts());
+        }
+        Set<Long> customerIds = orders.stream()
+                .map(order -> order.getCustomer().getCustomerId())
+                .collect(Collectors.toSet());
+        Map<Long, Customer> customers = customerRepository.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(Customer::getCustomerId, Function.identity()));
+        for (Long customerId : customerIds) {
+            if (!customers.containsKey(customerId)) {
+                throw new CustomerNotFoundException("Customer with ID: " + customerId + " not found");
+            }
+        }
+
+        Map<Long, Product> reservedProducts = productService.reserveStock(
+                quantitiesOf(orders.stream().flatMap(order -> order.getProducts().stream())));
+        for (Order order : orders) {
+            order.setOrderId(null);
+            order.setCustomer(customers.get(order.getCustomer().getCustomerId()));
+            attachProducts(order, order.getProducts(), reservedProducts);
+        }
+        return orderRepository.saveAll(orders);
+    }
+
+    private static void requirePlaceable(String order, Customer customer, List<Product> products) {
+        if (customer == null || customer.getCustomerId() == null) {
+            throw new InvalidOrderException(order + " needs a customer with a customerId");
+        }
+        if (products == null) {
+            throw new InvalidOrderException(order + " needs a list of products");
+        }
+    }
+
+    private static Map<Long, Integer> quantitiesOf(Stream<Product> products) {
+        return products.map(OrderService::requireProductId)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.summingInt(productId -> 1)));
+    }
+
+    private static Long requireProductId(Product product) {
+        if (product == null || product.getProductId() == null) {
+            throw new InvalidOrderException("Every product of an order needs a productId");
+        }
+        return product.getProductId();
+    }
+
+    private static void attachProducts(Order order, List<Product> requestedProducts, Map<Long, Product> reservedProducts) {
+        List<Product> persistedProducts = requestedProducts.stream()
+                .map(product -> reservedProducts.get(product.getProductId()))
                 .collect(Collectors.toList());
 
         order.setProducts(persistedProducts);
+        double totalPrice = order.getTotalPrice() != null ? order.getTotalPrice() : 0;
         for (Product product : persistedProducts) {
-            product.setQuantityInStock(product.getQuantityInStock() - 1);
-            productService.updateProduct(product.getProductId(), product);
-            order.setTotalPrice(order.getTotalPrice() + product.getPrice());
+            totalPrice += product.getPrice();
         }
-        return orderRepository.save(order);
+        order.setTotalPrice(totalPrice);
     }
 
     public void deleteOrder(Long id) {
@@ -88,5 +325,6 @@ public class OrderService {
             throw new OrderNotFoundException("Order with ID: " + id + " not found");
         }
         orderRepository.delete(getOrderById(id));
+        jsonCache.evict(Order.class, id);
     }
 }
\ No newline at end of file
@@ -1,60 +1,131 @@
 package com.spring_mvc_object_mapper.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.spring_mvc_object_mapper.entity.Order;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.spring_mvc_object_mapper.config.CacheConfig;
+import com.spring_mvc_object_mapper.config.MetricsConfig;
+import com.spring_mvc_object_mapper.dto.FieldSet;
 import com.spring_mvc_object_mapper.entity.Product;
 import com.spring_mvc_object_mapper.exception.ConvertExceptionFromObject;
+import com.spring_mvc_object_mapper.exception.ConvertExceptionFromString;
 import com.spring_mvc_object_mapper.exception.ProductNotFoundException;
+import com.spring_mvc_object_mapper.exception.ProductOutOfStockException;
 import com.spring_mvc_object_mapper.repository.OrderRepository;
 import com.spring_mvc_object_mapper.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(MetricsConfig.SERVICE_CALLS)
 public class ProductService {
 
     private final ProductRepository productRepository;
-    private final ObjectMapper objectMapper;
+    private final ObjectReader productReader;
+    private final ObjectWriter productWriter;
     private final OrderRepository orderRepository;
+    private final CacheManager cacheManager;
+    private final JsonBytesCache jsonCache;
+    private final JsonImporter jsonImporter;
 
-    public ProductService(ProductRepository productRepository,
-                          ObjectMapper objectMapper, OrderRepository orderRepository) {
+    public ProductService(ProductRepository productRepository, ObjectMapper objectMapper,
+                          OrderRepository orderRepository, CacheManager cacheManager, JsonBytesCache jsonCache,
+                          JsonImporter jsonImporter) {
         this.productRepository = productRepository;
-        this.objectMapper = objectMapper;
+        this.productReader = objectMapper.readerFor(Product.class);
+        this.productWriter = objectMapper.writerFor(Product.class);
         this.orderRepository = orderRepository;
+        this.cacheManager = cacheManager;
+        this.jsonCache = jsonCache;
+        this.jsonImporter = jsonImporter;
     }
 
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    /**
+     * One page of products; with a field selection only the columns it names are read.
+     */
+    public List<Product> getProducts(Long after, int limit, FieldSet fields) {
+        if (!fields.isAll()) {
+            return productRepository.findPageWithColumns(after, limit, fields.names());
+        }
+        return productRepository.findByProductIdGreaterThanOrderByProductIdAsc(after, Limit.of(limit));
     }
 
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "#id")
     public Product getProductById(Long id) {
         return productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException("Product with id " + id + " not found"));
     }
 
-    public String getProductAsJson(Long id) {
-        Product product = getProductById(id);
-        try {
-            return objectMapper.writeValueAsString(product);
-        } catch (Exception e) {
-            throw new ConvertExceptionFromObject("Error converting product from object");
-        }
+    public long getProductVersion(Long id) {
+        return productRepository.findVersionByProductId(id)
+                .orElseThrow(() -> new ProductNotFoundException("Product with id " + id + " not found"));
+    }
+
+    /**
+     * Fingerprint of the ids and versions on the page {@link #getProducts} returns, read without loading the products.
+     */
+    public long getProductsVersion(Long after, int limit) {
+        Fingerprint fingerprint = new Fingerprint();
+        productRepository.findVersionsByProductIdGreaterThan(after, Limit.of(limit))
+                .forEach(row -> fingerprint.add(row.id()).add(row.version()));
+        return fingerprint.value();
+    }
+
+    /**
+     * Streams the product's JSON to {@code body}, reusing the cached bytes, or their gzipped copy,
+     * while its version is unchanged.
+     */
+    public void writeProductAsJson(Long id, long version, JsonBytesCache.Target body) throws IOException {
+        jsonCache.write(Product.class, id, version, body, target -> {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new ProductNotFoundException("Product with id " + id + " not found"));
+            try {
+                productWriter.writeValue(target, product);
+            } catch (JsonProcessingException e) {
+                throw new ConvertExceptionFromObject("Error converting product from object");
+            }
+            return product.getVersion();
+        });
     }
 
-    public Product createProductFromJson(String productJson) {
+    /**
+     * Reads a single product, which is returned without being saved, or an array or newline-delimited stream of
+     * products, which are saved as new products in chunks as they are parsed, each chunk committed on its own.
+     */
+    public JsonImport<Product> createProductsFromJson(InputStream productJson) {
         try {
-            return objectMapper.readValue(productJson, Product.class);
-        } catch (Exception e) {
-            throw new RuntimeException("Error creating product from string");
+            return jsonImporter.read(productReader, productJson, (List<Product> products) -> {
+                products.forEach(product -> product.setProductId(null));
+                productRepository.saveAll(products);
+            });
+        } catch (IOException e) {
+            throw new ConvertExceptionFromString("Error creating product from string");
         }
     }
 
+    @CachePut(cacheNames = CacheConfig.PRODUCTS, key = "#result.productId")
     public Product createProduct(Product product) {
         return productRepository.save(product);
     }
 
+    @CachePut(cacheNames = CacheConfig.PRODUCTS, key = "#id")
     public Product updateProduct(Long id, Product productDetails) {
         if (!productRepository.existsById(id)) {
             throw new ProductNotFoundException("Product with id " + id + " not found");
@@ -64,17 +135,47 @@ public class ProductService {
         existingProduct.setDescription(productDetails.getDescription());
         existingProduct.setPrice(productDetails.getPrice());
         existingProduct.setQuantityInStock(productDetails.getQuantityInStock());
+        jsonCache.evict(Product.class, id);
         return productRepository.save(existingProduct);
     }
 
+    /**
+     * Reserves the requested quantity of each product inside the caller's transaction and returns the
+     * products with their updated stock, copies of which replace the cached entries once the transaction commits.
+     * Products are decremented in id order so that concurrent reservations lock rows in the same order
+     * and cannot deadlock.
+     */
+    @Transactional
+    public Map<Long, Product> reserveStock(Map<Long, Integer> quantities) {
+        List<Long> outOfStock = new ArrayList<>();
+        new TreeMap<>(quantities).forEach((id, quantity) -> {
+            if (productRepository.decrementStock(id, quantity) == 0) {
+                outOfStock.add(id);
+            }
+        });
+        Map<Long, Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Product::getProductId, Function.identity()));
+        for (Long id : quantities.keySet()) {
+            if (!products.containsKey(id)) {
+                throw new ProductNotFoundException("Product with ID: " + id + " not found");
+            }
+        }
+        if (!outOfStock.isEmpty()) {
+            throw new ProductOutOfStockException("Product with ID: " + outOfStock.get(0) + " is out of stock");
+        }
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUCTS);
+        products.forEach(cache::put);
+        products.keySet().forEach(id -> jsonCache.evict(Product.class, id));
+        return products;
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id")
     public void deleteProduct(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ProductNotFoundException("Product with id " + id + " not found"));
-        List<Order> orders = orderRepository.findAll();
-        for (Order order : orders) {
-            order.getProducts().remove(product);
-            orderRepository.save(order);
+        orderRepository.deleteOrderLinesByProductId(id);
+        if (productRepository.deleteByProductId(id) == 0) {
+            throw new ProductNotFoundException("Product with id " + id + " not found");
         }
-        productRepository.delete(getProductById(id));
+        jsonCache.evict(Product.class, id);
     }
 }
\ No newline at end of file
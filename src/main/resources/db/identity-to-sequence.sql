@@ -0,0 +1,11 @@
+-- Moves a PostgreSQL database created while ids were IDENTITY columns onto the pooled sequences the entities now use.
+-- Run it once before starting the new version against existing data; IdSequenceCheck refuses to start until then.
+-- Each sequence is created as Hibernate would create it and set so that its next block starts past the highest id.
+
+CREATE SEQUENCE IF NOT EXISTS customers_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS products_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS orders_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('customers_seq', (SELECT COALESCE(MAX(customer_id), 0) + 1 FROM customers), false);
+SELECT setval('products_seq', (SELECT COALESCE(MAX(product_id), 0) + 1 FROM products), false);
+SELECT setval('orders_seq', (SELECT COALESCE(MAX(order_id), 0) + 1 FROM orders), false);
@@ -0,0 +1,100 @@
+package com.spring_mvc_object_mapper.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring_mvc_object_mapper.dto.AccessToken;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Reads one product through the full filter chain with Basic credentials checked against the password hash on every
+ * request, with Basic credentials answered from the verified-credentials cache, and with a signed bearer token, and
+ * prints the time per request of each. Also checks that a token is issued only for Basic credentials, that a tampered
+ * token is rejected, and that none of these requests creates a session.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:authoverhead;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@Sql(scripts = "/schema.sql")
+@Sql(scripts = "/data.sql")
+class AuthenticationOverheadBenchmarkTest {
+
+    private static final String BASIC = "Basic dXNlcjp1c2Vy";
+    private static final String PATH = "/api/products/1";
+    private static final long WARMUP_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final long MEASURE_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    @Test
+    void bearerTokensSkipCredentialChecksAndReportTimePerRequest() throws Exception {
+        MvcResult issued = perform(post(WebSecurityConfig.TOKEN_PATH).header(HttpHeaders.AUTHORIZATION, BASIC), 200);
+        String bearer = "Bearer " + objectMapper.readValue(issued.getResponse().getContentAsByteArray(),
+                AccessToken.class).accessToken();
+
+        perform(post(WebSecurityConfig.TOKEN_PATH).header(HttpHeaders.AUTHORIZATION, bearer), 401);
+        perform(get(PATH).header(HttpHeaders.AUTHORIZATION, bearer + "x"), 401);
+        perform(get(PATH).header(HttpHeaders.AUTHORIZATION, bearer), 200);
+        perform(get(PATH).header(HttpHeaders.AUTHORIZATION, BASIC), 200);
+
+        report("basic, password hash", () -> {
+            events.publishEvent(new PublishingUserDetailsManager.UsersChangedEvent("user"));
+            perform(get(PATH).header(HttpHeaders.AUTHORIZATION, BASIC), 200);
+        });
+        report("basic, cached", () -> perform(get(PATH).header(HttpHeaders.AUTHORIZATION, BASIC), 200));
+        report("bearer token", () -> perform(get(PATH).header(HttpHeaders.AUTHORIZATION, bearer), 200));
+    }
+
+    private MvcResult perform(MockHttpServletRequestBuilder request, int status) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        assertEquals(status, result.getResponse().getStatus());
+        assertNull(result.getRequest().getSession(false));
+        return result;
+    }
+
+    private static void report(String label, Operation operation) throws Exception {
+        run(operation, WARMUP_NANOS);
+        long operations = run(operation, MEASURE_NANOS);
+        System.out.printf("%-22s %,8d requests %,12d ns/request%n", label, operations, MEASURE_NANOS / operations);
+    }
+
+    private static long run(Operation operation, long durationNanos) throws Exception {
+        long operations = 0;
+        long deadline = System.nanoTime() + durationNanos;
+        while (System.nanoTime() < deadline) {
+            operation.run();
+            operations++;
+        }
+        return operations;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run() throws Exception;
+    }
+}
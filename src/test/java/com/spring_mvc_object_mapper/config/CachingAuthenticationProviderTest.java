@@ -0,0 +1,115 @@
+package com.spring_mvc_object_mapper.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachingAuthenticationProviderTest {
+
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PublishingUserDetailsManager users;
+    private CachingAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        users = new PublishingUserDetailsManager(event -> provider.invalidateAll());
+        DaoAuthenticationProvider userStore = new DaoAuthenticationProvider(passwordEncoder);
+        userStore.setUserDetailsService(users);
+        provider = new CachingAuthenticationProvider(userStore, Duration.ofMinutes(1), 100, meterRegistry);
+        users.createUser(user("secret"));
+    }
+
+    @Test
+    void shouldCheckThePasswordOnceForRepeatedCredentialsTest() {
+        Authentication first = provider.authenticate(token("user", "secret"));
+        Authentication second = provider.authenticate(token("user", "secret"));
+
+        assertTrue(first.isAuthenticated());
+        assertTrue(second.isAuthenticated());
+        assertEquals("user", second.getName());
+        assertEquals(first.getAuthorities(), second.getAuthorities());
+        assertNull(second.getCredentials());
+        assertEquals(1, verifications());
+        assertEquals(1, avoided());
+    }
+
+    @Test
+    void shouldCheckRejectedCredentialsEveryTimeTest() {
+        provider.authenticate(token("user", "secret"));
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("user", "wrong")));
+        }
+
+        assertEquals(3, verifications());
+        assertEquals(0, avoided());
+    }
+
+    @Test
+    void shouldForgetVerifiedCredentialsWhenUsersChangeTest() {
+        provider.authenticate(token("user", "secret"));
+
+        users.updateUser(user("changed"));
+
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("user", "secret")));
+        assertTrue(provider.authenticate(token("user", "changed")).isAuthenticated());
+        assertEquals(0, avoided());
+    }
+
+    @Test
+    void shouldNotCacheCredentialsCheckedWhileUsersChangeTest() {
+        DaoAuthenticationProvider userStore = new DaoAuthenticationProvider(passwordEncoder);
+        userStore.setUserDetailsService(users);
+        AuthenticationProvider changingUsers = new AuthenticationProvider() {
+            @Override
+            public Authentication authenticate(Authentication authentication) {
+                Authentication result = userStore.authenticate(authentication);
+                users.updateUser(user("secret"));
+                return result;
+            }
+
+            @Override
+            public boolean supports(Class<?> authentication) {
+                return userStore.supports(authentication);
+            }
+        };
+        provider = new CachingAuthenticationProvider(changingUsers, Duration.ofMinutes(1), 100, meterRegistry);
+
+        provider.authenticate(token("user", "secret"));
+        provider.authenticate(token("user", "secret"));
+
+        assertEquals(2, verifications());
+        assertEquals(0, avoided());
+    }
+
+    private User user(String password) {
+        return (User) User.withUsername("user").password(passwordEncoder.encode(password)).roles("USER").build();
+    }
+
+    private static UsernamePasswordAuthenticationToken token(String username, String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+    }
+
+    private long verifications() {
+        return meterRegistry.get("security.credentials.verify").timer().count();
+    }
+
+    private double avoided() {
+        return meterRegistry.get("security.credentials.verify.avoided").counter().count();
+    }
+}
@@ -0,0 +1,56 @@
+package com.spring_mvc_object_mapper.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Reads one product and checks that the request, the service and repository calls behind it, its SQL statements,
+ * its JSON body, Hibernate and the connection pool all show up in the meter registry.
+ */
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:requestmetrics;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@Sql(scripts = "/schema.sql")
+@Sql(scripts = "/data.sql")
+class RequestMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldRecordMetricsAcrossTheLayersOfARequestTest() throws Exception {
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.AUTHORIZATION, "Basic dXNlcjp1c2Vy"))
+                .andExpect(status().isOk());
+
+        assertEquals(1, meterRegistry.get("http.server.requests").tag("uri", "/api/products/{id}").timer().count());
+        DistributionSummary statements = meterRegistry.get("http.server.requests.sql")
+                .tag("method", "GET")
+                .tag("uri", "/api/products/{id}")
+                .summary();
+        assertEquals(1, statements.count());
+        assertTrue(statements.totalAmount() >= 1);
+        assertEquals(1, meterRegistry.get(MetricsConfig.SERVICE_CALLS).tag("method", "getProductById").timer().count());
+        assertTrue(meterRegistry.get("spring.data.repository.invocations").timer().count() >= 1);
+        assertEquals(1, meterRegistry.get("json.serialization").timer().count());
+        assertTrue(meterRegistry.get("json.serialization.bytes").summary().totalAmount() > 0);
+        assertTrue(meterRegistry.get("hibernate.statements").tag("status", "prepared").functionCounter().count() > 0);
+        assertTrue(meterRegistry.get("hikaricp.connections.acquire").timer().count() > 0);
+    }
+}
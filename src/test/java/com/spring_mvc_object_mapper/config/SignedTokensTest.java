@@ -0,0 +1,76 @@
+package com.spring_mvc_object_mapper.config;
+
+import com.spring_mvc_object_mapper.dto.AccessToken;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SignedTokensTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final Authentication user = UsernamePasswordAuthenticationToken.authenticated("user", null,
+            AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_ADMIN"));
+
+    @Test
+    void shouldVerifyIssuedTokenWithoutUserLookupTest() {
+        SignedTokens tokens = tokens(SECRET, NOW);
+
+        AccessToken accessToken = tokens.issue(user);
+        Authentication verified = tokens.verify(accessToken.accessToken());
+
+        assertEquals("Bearer", accessToken.tokenType());
+        assertEquals(900, accessToken.expiresIn());
+        assertNotNull(verified);
+        assertTrue(verified.isAuthenticated());
+        assertEquals("user", verified.getName());
+        assertEquals(user.getAuthorities(), verified.getAuthorities());
+    }
+
+    @Test
+    void shouldRejectTamperedAndForeignTokensTest() {
+        SignedTokens tokens = tokens(SECRET, NOW);
+        String token = tokens.issue(user).accessToken();
+        String forged = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("admin\n9999999999\nROLE_ADMIN".getBytes()) + token.substring(token.indexOf('.'));
+
+        assertNull(tokens.verify(forged));
+        assertNull(tokens.verify(token.substring(0, token.length() - 2)));
+        assertNull(tokens.verify("not-a-token"));
+        assertNull(tokens.verify("%%%.%%%"));
+        assertNull(tokens(null, NOW).verify(token));
+    }
+
+    @Test
+    void shouldRejectExpiredTokensTest() {
+        String token = tokens(SECRET, NOW).issue(user).accessToken();
+
+        assertNotNull(tokens(SECRET, NOW.plus(Duration.ofMinutes(14))).verify(token));
+        assertNull(tokens(SECRET, NOW.plus(Duration.ofMinutes(15))).verify(token));
+    }
+
+    @Test
+    void shouldRequireSecretOfAtLeast32BytesTest() {
+        String shortSecret = Base64.getEncoder().encodeToString(new byte[16]);
+
+        assertThrows(IllegalArgumentException.class, () -> tokens(shortSecret, NOW));
+    }
+
+    private static SignedTokens tokens(String secret, Instant now) {
+        return new SignedTokens(secret, Duration.ofMinutes(15), Clock.fixed(now, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,83 @@
+package com.spring_mvc_object_mapper.config;
+
+import com.spring_mvc_object_mapper.exception.QueryBudgetExceededException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqlStatementCounterTest {
+
+    private static final String SELECT_ORDER = "select o1_0.order_id from orders o1_0 where o1_0.order_id=?";
+
+    private final SqlStatementCounter counter = new SqlStatementCounter();
+
+    @Test
+    void shouldGroupStatementsThatDifferOnlyInLiteralsAndInListsTest() {
+        counter.begin(new SqlStatementCounter.Budget(10, 10, false));
+        counter.inspect("select p1_0.name from products p1_0 where p1_0.product_id in (?,?,?)");
+        counter.inspect("select p1_0.name from products p1_0 where p1_0.product_id in (?, ?)");
+        counter.inspect("select p1_0.name from products  p1_0 where p1_0.name='it''s' and p1_0.price>10.5");
+        SqlStatementCounter.Statements statements = counter.end();
+
+        assertEquals(3, statements.count());
+        assertEquals(2, statements.mostRepeatedCount());
+        assertEquals("select p1_0.name from products p1_0 where p1_0.product_id in (?)", statements.mostRepeated());
+        assertEquals("select p1_0.name from products p1_0 where p1_0.name=? and p1_0.price>?",
+                SqlStatementCounter.shapeOf("select p1_0.name from products  p1_0 where p1_0.name='it''s' "
+                        + "and p1_0.price>10.5"));
+    }
+
+    @Test
+    void shouldFailTheStatementThatExceedsAStrictBudgetTest() {
+        SqlStatementCounter.Budget budget = new SqlStatementCounter.Budget(10, 2, true);
+        counter.begin(budget);
+        counter.inspect(SELECT_ORDER);
+        counter.inspect(SELECT_ORDER);
+
+        assertThrows(QueryBudgetExceededException.class, () -> counter.inspect(SELECT_ORDER));
+        assertTrue(counter.end().exceeds(budget));
+
+        counter.begin(new SqlStatementCounter.Budget(1, 10, true));
+        counter.inspect(SELECT_ORDER);
+        assertThrows(QueryBudgetExceededException.class, () -> counter.inspect("select 1"));
+        counter.end();
+    }
+
+    @Test
+    void shouldRaiseTheBudgetOfTheOpenScopeByTheAllowanceTest() {
+        SqlStatementCounter.Budget budget = new SqlStatementCounter.Budget(3, 2, true);
+        counter.allow(10);
+        counter.begin(budget);
+        counter.allow(2);
+        for (int i = 0; i < 4; i++) {
+            counter.inspect(SELECT_ORDER);
+        }
+        assertThrows(QueryBudgetExceededException.class, () -> counter.inspect(SELECT_ORDER));
+        SqlStatementCounter.Statements statements = counter.end();
+
+        assertEquals(2, statements.allowance());
+        assertTrue(statements.exceeds(budget));
+        assertFalse(new SqlStatementCounter.Statements(5, SELECT_ORDER, 4, 2)
+                .exceeds(new SqlStatementCounter.Budget(QueryBudget.UNLIMITED, QueryBudget.UNLIMITED, true)));
+    }
+
+    @Test
+    void shouldOnlyCountWithoutABudgetOrOutsideAScopeTest() {
+        counter.inspect(SELECT_ORDER);
+        assertEquals(0, counter.end().count());
+
+        counter.begin();
+        for (int i = 0; i < 100; i++) {
+            counter.inspect(SELECT_ORDER);
+        }
+        SqlStatementCounter.Statements statements = counter.end();
+
+        assertEquals(100, statements.count());
+        assertNull(statements.mostRepeated());
+        assertFalse(statements.exceeds(new SqlStatementCounter.Budget(100, 100, true)));
+    }
+}
@@ -7,6 +7,7 @@ import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
@@ -25,6 +26,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 class CustomerControllerTest {
 
+    private static final String BASIC = "Basic dXNlcjp1c2Vy";
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -61,9 +64,10 @@ class CustomerControllerTest {
 
     @Test
     void shouldGetCustomerAsJson() throws Exception {
-        mockMvc.perform(get("/api/customers/1/json"))
+        mockMvc.perform(get("/api/customers/1/json").header(HttpHeaders.AUTHORIZATION, BASIC))
                 .andExpect(status().isOk())
-                .andExpect(content().string(customerJson));
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(customerJson));
     }
 
     @Test
@@ -0,0 +1,79 @@
+package com.spring_mvc_object_mapper.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ETagsTest {
+
+    @Test
+    void shouldTagJsonWithVersionOnly() {
+        assertEquals("\"1f\"", ETags.strong(31, request(null)));
+        assertEquals("\"1f\"", ETags.strong(31, request("*/*")));
+        assertEquals("\"1f\"", ETags.strong(31, request("application/json")));
+        assertEquals("W/\"1f\"", ETags.weak(31, request("application/*")));
+    }
+
+    @Test
+    void shouldTagBinaryFormatsSeparately() {
+        assertEquals("\"1f-smile\"", ETags.strong(31, request("application/x-jackson-smile")));
+        assertEquals("W/\"1f-cbor\"", ETags.weak(31, request("application/cbor")));
+        assertEquals("\"1f-smile\"", ETags.strong(31, request("text/html, application/x-jackson-smile;q=0.9")));
+    }
+
+    @Test
+    void shouldFollowQualityValues() {
+        assertEquals("\"1f\"", ETags.strong(31, request("application/cbor;q=0.5, application/json")));
+        assertEquals("\"1f-cbor\"", ETags.strong(31, request("application/json;q=0.5, application/cbor")));
+    }
+
+    @Test
+    void shouldTagFieldSelectionsWhoseHashCodesCollideApart() {
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+
+        String first = ETags.strong(31, request(null, "Aa"));
+        String second = ETags.strong(31, request(null, "BB"));
+
+        assertTrue(first.startsWith("\"1f-f"));
+        assertNotEquals(first, second);
+        assertEquals(first, ETags.strong(31, request(null, " Aa ")));
+    }
+
+    @Test
+    void shouldTagListVariantsWhoseHashCodesCollideApart() {
+        assertNotEquals(ETags.weak(31, "Aa", request(null)), ETags.weak(31, "BB", request(null)));
+        assertEquals(ETags.weak(31, "Aa", request(null)), ETags.weak(31, "Aa", request(null)));
+    }
+
+    @Test
+    void shouldVaryByAcceptWhenCheckingTag() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/products/1");
+        servletRequest.addHeader("If-None-Match", "\"1f-cbor\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        ServletWebRequest request = new ServletWebRequest(servletRequest, servletResponse);
+
+        assertTrue(ETags.checkNotModified(request, "\"1f-cbor\""));
+        assertEquals(304, servletResponse.getStatus());
+        assertEquals("Accept", servletResponse.getHeader("Vary"));
+    }
+
+    private static ServletWebRequest request(String accept) {
+        return request(accept, null);
+    }
+
+    private static ServletWebRequest request(String accept, String fields) {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/products/1");
+        if (accept != null) {
+            servletRequest.addHeader("Accept", accept);
+        }
+        if (fields != null) {
+            servletRequest.setParameter("fields", fields);
+        }
+        return new ServletWebRequest(servletRequest, new MockHttpServletResponse());
+    }
+}
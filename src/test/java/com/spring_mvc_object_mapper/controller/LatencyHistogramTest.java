@@ -0,0 +1,42 @@
+package com.spring_mvc_object_mapper.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void shouldMapEveryValueToABucketThatHoldsItTest() {
+        int previous = -1;
+        for (long value = 0; value < 1_000_000; value++) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(index == previous || index == previous + 1, "bucket of " + value);
+            assertTrue(LatencyHistogram.highestValueOf(index) >= value);
+            assertTrue(LatencyHistogram.highestValueOf(index) - value <= value / 64, "precision at " + value);
+            previous = index;
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValueOf(LatencyHistogram.indexOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void shouldReportPercentilesWithinOnePartIn64Test() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+        LatencyHistogram merged = new LatencyHistogram();
+        merged.add(histogram);
+        merged.record(5_000_000_000L);
+
+        assertEquals(1000, histogram.count());
+        assertEquals(500_000, histogram.valueAt(0.50), 500_000 / 64.0);
+        assertEquals(990_000, histogram.valueAt(0.99), 990_000 / 64.0);
+        assertEquals(1_000_000, histogram.valueAt(1.0));
+        assertEquals(500_500, histogram.mean(), 0.001);
+        assertEquals(1001, merged.count());
+        assertEquals(1_000_000, merged.valueAt(0.999), 1_000_000 / 64.0);
+        assertEquals(5_000_000_000L, merged.valueAt(1.0));
+    }
+}
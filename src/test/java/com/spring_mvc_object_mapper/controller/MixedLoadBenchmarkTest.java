@@ -0,0 +1,307 @@
+package com.spring_mvc_object_mapper.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring_mvc_object_mapper.SpringMvcObjectMapperApplication;
+import com.spring_mvc_object_mapper.config.WebSecurityConfig;
+import com.spring_mvc_object_mapper.dto.AccessToken;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Boots the application on a real port with the H2 test profile and sends it an open-loop mix of product reads,
+ * {@code /json} fetches, orders that all take the same hot product, and customer deletes, at a fixed rate whether or
+ * not earlier requests have been answered. Latency is measured from the time each request was due to be sent rather
+ * than the time it was, so a stall that holds up every connection counts against all the requests that should have
+ * gone out meanwhile, not just the one in flight. The time from actually sending is reported alongside as service
+ * time.
+ * <p>
+ * The rate, warmup, duration and number of connections come from the {@code load-test.*} system properties, e.g.
+ * {@code mvn test -Dtest=MixedLoadBenchmarkTest -Dload-test.rate=200 -Dload-test.duration=30s}. The operations are
+ * interleaved in the same order on every run, and the report, written to {@code load-test.report}, holds no
+ * timestamps, so reports from two releases can be diffed.
+ */
+@Tag("benchmark")
+class MixedLoadBenchmarkTest {
+
+    private static final int RATE = Integer.getInteger("load-test.rate", 50);
+    private static final Duration WARMUP = duration("load-test.warmup", "2s");
+    private static final Duration DURATION = duration("load-test.duration", "10s");
+    private static final int CONNECTIONS = Integer.getInteger("load-test.connections", 32);
+    private static final Path REPORT = Path.of(System.getProperty("load-test.report",
+            "target/load-test/mixed-load.txt"));
+    private static final String BASIC = "Basic dXNlcjp1c2Vy";
+    private static final long FIRST_DELETABLE_CUSTOMER = 1000;
+    private static final long SEED = 42;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final AtomicLong nextCustomer = new AtomicLong(FIRST_DELETABLE_CUSTOMER);
+    private final List<Operation> operations = new ArrayList<>();
+    private final Operation[] schedule;
+    private String baseUrl;
+    private String authorization;
+
+    MixedLoadBenchmarkTest() {
+        Operation productReads = operation("GET /api/products/{id}", 8, i -> get("/api/products/" + (i % 3 + 1)));
+        Operation productPages = operation("GET /api/products", 2, i -> get("/api/products?limit=20"));
+        String[] jsonPaths = {"/api/customers/1/json", "/api/products/1/json", "/api/products/2/json",
+                "/api/orders/1/json"};
+        Operation jsonFetches = operation("GET /api/{resource}/{id}/json", 5,
+                i -> get(jsonPaths[(int) (i % jsonPaths.length)]));
+        Operation orders = operation("POST /api/orders", 4, i -> request("/api/orders")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"customer\":{\"customerId\":1},"
+                        + "\"products\":[{\"productId\":1},{\"productId\":" + (i % 2 + 2) + "}],"
+                        + "\"orderDate\":\"2024-01-01\",\"shippingAddress\":\"123 Main St, Anytown USA\","
+                        + "\"totalPrice\":0,\"orderStatus\":\"Pending\"}"))
+                .build());
+        Operation customerDeletes = operation("DELETE /api/customers/{id}", 1,
+                i -> request("/api/customers/" + nextCustomer.getAndIncrement()).DELETE().build());
+        List<Operation> slots = new ArrayList<>();
+        for (Operation operation : List.of(productReads, productPages, jsonFetches, orders, customerDeletes)) {
+            for (int i = 0; i < operation.weight; i++) {
+                slots.add(operation);
+            }
+        }
+        Collections.shuffle(slots, new Random(SEED));
+        schedule = slots.toArray(Operation[]::new);
+    }
+
+    @Test
+    void reportLatencyPercentilesOfAMixedLoad() throws Exception {
+        long warmupRequests = RATE * WARMUP.toMillis() / 1000;
+        long measuredRequests = RATE * DURATION.toMillis() / 1000;
+        long deletes = 0;
+        for (long i = 0; i < warmupRequests + measuredRequests; i++) {
+            if (operationAt(i).name.startsWith("DELETE")) {
+                deletes++;
+            }
+        }
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                SpringMvcObjectMapperApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:mixedload;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.hikari.maximum-pool-size=" + CONNECTIONS,
+                        "--spring.jpa.show-sql=false")) {
+            prepareDatabase(context.getBean(DataSource.class), deletes);
+            baseUrl = "http://127.0.0.1:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpResponse<byte[]> issued = client.send(HttpRequest.newBuilder(URI.create(baseUrl
+                            + WebSecurityConfig.TOKEN_PATH)).header("Authorization", BASIC)
+                    .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofByteArray());
+            assertEquals(200, issued.statusCode());
+            authorization = "Bearer " + objectMapper.readValue(issued.body(), AccessToken.class).accessToken();
+
+            run(0, warmupRequests);
+            operations.forEach(Operation::reset);
+            long elapsed = run(warmupRequests, measuredRequests);
+            String report = report(elapsed);
+            System.out.print(report);
+            Files.createDirectories(REPORT.toAbsolutePath().getParent());
+            Files.writeString(REPORT, report);
+        }
+        for (Operation operation : operations) {
+            assertEquals(0, operation.errors(), operation.name + " failed " + operation.statuses);
+        }
+    }
+
+    /**
+     * Loads the test data, raises the stock of the hot products so the run never exhausts it, and adds a customer
+     * without orders for each delete in the run.
+     */
+    private static void prepareDatabase(DataSource dataSource, long deletes) {
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"), new ClassPathResource("data.sql"))
+                .execute(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("UPDATE products SET quantity_in_stock = ?", Integer.MAX_VALUE);
+        List<Object[]> customers = new ArrayList<>();
+        for (long id = FIRST_DELETABLE_CUSTOMER; id < FIRST_DELETABLE_CUSTOMER + deletes; id++) {
+            customers.add(new Object[]{id, "load" + id + "@example.com"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO customers (customer_id, first_name, last_name, email, contact_number) "
+                + "VALUES (?, 'Load', 'Test', ?, '1234567890')", customers);
+    }
+
+    /**
+     * Sends requests {@code first} to {@code first + count - 1}, each due {@code 1 / RATE} seconds after the one
+     * before, over {@code CONNECTIONS} connections, and returns the nanoseconds from the first being due to the last
+     * being answered.
+     */
+    private long run(long first, long count) throws Exception {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / RATE;
+        long start = System.nanoTime();
+        AtomicLong next = new AtomicLong();
+        ExecutorService connections = Executors.newFixedThreadPool(CONNECTIONS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < CONNECTIONS; i++) {
+            futures.add(connections.submit(() -> {
+                for (long n = next.getAndIncrement(); n < count; n = next.getAndIncrement()) {
+                    long due = start + n * intervalNanos;
+                    for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    send(operationAt(first + n), first + n, due);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        connections.shutdown();
+        return System.nanoTime() - start;
+    }
+
+    private void send(Operation operation, long index, long due) {
+        long sent = System.nanoTime();
+        int status;
+        try {
+            status = client.send(operation.request.apply(index), HttpResponse.BodyHandlers.discarding())
+                    .statusCode();
+        } catch (IOException e) {
+            status = 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long answered = System.nanoTime();
+        operation.record(status, answered - due, answered - sent);
+    }
+
+    private Operation operationAt(long index) {
+        return schedule[(int) (index % schedule.length)];
+    }
+
+    private String report(long elapsedNanos) {
+        StringWriter out = new StringWriter();
+        PrintWriter report = new PrintWriter(out);
+        report.printf("rate %d req/s, duration %s, warmup %s, %d connections%n", RATE, DURATION, WARMUP, CONNECTIONS);
+        report.printf("%-30s %8s %7s %7s %9s %9s %9s %9s %11s%n", "operation", "requests", "errors", "error%",
+                "p50 ms", "p99 ms", "p999 ms", "max ms", "svc p99 ms");
+        LatencyHistogram latency = new LatencyHistogram();
+        LatencyHistogram service = new LatencyHistogram();
+        long requests = 0;
+        long errors = 0;
+        for (Operation operation : operations) {
+            row(report, operation.name, operation.latency, operation.service, operation.errors());
+            latency.add(operation.latency);
+            service.add(operation.service);
+            requests += operation.latency.count();
+            errors += operation.errors();
+        }
+        row(report, "all", latency, service, errors);
+        report.printf("throughput %.1f req/s of %d req/s offered%n",
+                requests * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos, RATE);
+        for (Operation operation : operations) {
+            new TreeMap<>(operation.statuses).forEach((status, count) -> report.printf("status %-30s %3d %8d%n",
+                    operation.name, status, count.get()));
+        }
+        report.flush();
+        return out.toString();
+    }
+
+    private static void row(PrintWriter report, String name, LatencyHistogram latency, LatencyHistogram service,
+                            long errors) {
+        long requests = latency.count();
+        report.printf("%-30s %8d %7d %7.2f %9.2f %9.2f %9.2f %9.2f %11.2f%n", name, requests, errors,
+                requests == 0 ? 0 : 100.0 * errors / requests, millis(latency.valueAt(0.50)),
+                millis(latency.valueAt(0.99)), millis(latency.valueAt(0.999)), millis(latency.max()),
+                millis(service.valueAt(0.99)));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private Operation operation(String name, int weight, LongFunction<HttpRequest> request) {
+        Operation operation = new Operation(name, weight, request);
+        operations.add(operation);
+        return operation;
+    }
+
+    private HttpRequest get(String path) {
+        return request(path).build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Authorization", authorization);
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+
+    /**
+     * One kind of request, its share of the mix in {@link #schedule} slots, and what happened to it. Status 0 stands
+     * for a request that got no response at all.
+     */
+    private static final class Operation {
+
+        final String name;
+        final int weight;
+        final LongFunction<HttpRequest> request;
+        final Map<Integer, AtomicLong> statuses = new ConcurrentHashMap<>();
+        LatencyHistogram latency = new LatencyHistogram();
+        LatencyHistogram service = new LatencyHistogram();
+
+        Operation(String name, int weight, LongFunction<HttpRequest> request) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+        }
+
+        void record(int status, long latencyNanos, long serviceNanos) {
+            latency.record(latencyNanos);
+            service.record(serviceNanos);
+            statuses.computeIfAbsent(status, key -> new AtomicLong()).incrementAndGet();
+        }
+
+        long errors() {
+            return statuses.entrySet().stream()
+                    .filter(entry -> entry.getKey() < 200 || entry.getKey() >= 300)
+                    .mapToLong(entry -> entry.getValue().get())
+                    .sum();
+        }
+
+        void reset() {
+            latency = new LatencyHistogram();
+            service = new LatencyHistogram();
+            statuses.clear();
+        }
+    }
+}
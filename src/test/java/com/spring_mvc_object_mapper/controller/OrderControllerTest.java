@@ -1,16 +1,26 @@
 package com.spring_mvc_object_mapper.controller;
 
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.Matchers.startsWith;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -22,9 +32,14 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 class OrderControllerTest {
 
+    private static final String BASIC = "Basic dXNlcjp1c2Vy";
+
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private String orderJson;
 
     @BeforeEach
@@ -58,11 +73,12 @@ class OrderControllerTest {
 
     @Test
     void shouldGetAllOrders() throws Exception {
-        mockMvc.perform(get("/api/orders"))
+        mockMvc.perform(get("/api/orders").header(HttpHeaders.AUTHORIZATION, BASIC))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].orderId").value(1L))
-                .andExpect(jsonPath("$[0].customer.firstName").value("John"))
-                .andExpect(jsonPath("$[0].products[0].name").value("Product 1"));
+                .andExpect(jsonPath("$[0].customerId").value(1L))
+                .andExpect(jsonPath("$[0].productIds[0]").value(1L))
+                .andExpect(jsonPath("$[0].customer").doesNotExist());
     }
 
     @Test
@@ -132,6 +148,45 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.products[0].name").value("Product 1"));
     }
 
+    @Test
+    void shouldExportOrdersToBearerTokenOnAsyncDispatch() throws Exception {
+        String token = JsonPath.read(mockMvc.perform(post("/api/auth/token").header(HttpHeaders.AUTHORIZATION, BASIC))
+                .andReturn().getResponse().getContentAsString(), "$.accessToken");
+        MvcResult export = mockMvc.perform(get("/api/orders/export")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(startsWith("{\"orderId\":1,")));
+    }
+
+    @Test
+    void shouldPlaceOrderOfMoreDistinctProductsThanTheDefaultQueryBudget() throws Exception {
+        List<Object[]> products = new ArrayList<>();
+        for (long id = 4; id <= 30; id++) {
+            products.add(new Object[]{id, "Product " + id});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (product_id, name, description, price, quantity_in_stock) "
+                + "VALUES (?, ?, 'This is a test product', 10.00, 100)", products);
+        String token = JsonPath.read(mockMvc.perform(post("/api/auth/token").header(HttpHeaders.AUTHORIZATION, BASIC))
+                .andReturn().getResponse().getContentAsString(), "$.accessToken");
+        String order = LongStream.rangeClosed(1, 30)
+                .mapToObj(id -> "{\"productId\":" + id + "}")
+                .collect(Collectors.joining(",", "{\"customer\":{\"customerId\":1},\"products\":[",
+                        "],\"orderDate\":\"2021-01-01\",\"shippingAddress\":\"123 Main St, Anytown USA\","
+                                + "\"orderStatus\":\"Pending\"}"));
+
+        mockMvc.perform(post("/api/orders")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(order))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.products.length()").value(30));
+    }
+
     @Test
     void shouldDeleteOrder() throws Exception {
         mockMvc.perform(delete("/api/orders/1"))
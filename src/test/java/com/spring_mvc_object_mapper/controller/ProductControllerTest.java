@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
@@ -22,6 +23,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 class ProductControllerTest {
 
+    private static final String BASIC = "Basic dXNlcjp1c2Vy";
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -47,6 +50,16 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$[0].price").value(10.0));
     }
 
+    @Test
+    void shouldGetProductsPageAfterCursor() throws Exception {
+        mockMvc.perform(get("/api/products").param("after", "1").param("limit", "1")
+                        .header(HttpHeaders.AUTHORIZATION, BASIC))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "2"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].productId").value(2L));
+    }
+
     @Test
     void shouldGetProductById() throws Exception {
         mockMvc.perform(get("/api/products/1"))
@@ -0,0 +1,205 @@
+package com.spring_mvc_object_mapper.controller;
+
+import com.spring_mvc_object_mapper.SpringMvcObjectMapperApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.UserDetailsManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the application on a real port with the platform-thread pool and, on Java 21, with virtual threads, and has
+ * {@value #CLIENTS} clients read product and order pages for a fixed time, printing the throughput and latency of
+ * each mode. Every JDBC statement waits {@value #STATEMENT_LATENCY_MILLIS} ms first, like a round trip to a database
+ * server would, and passwords are stored unencoded, so that the run measures requests blocked on the database rather
+ * than the in-memory database or the password hash. Tomcat gets {@value #TOMCAT_THREADS} worker threads and the
+ * connection pool {@value #POOL_SIZE} connections, so with virtual threads the pool becomes the limit.
+ */
+@Tag("benchmark")
+class RequestThreadingBenchmarkTest {
+
+    private static final int CLIENTS = 64;
+    private static final int TOMCAT_THREADS = 8;
+    private static final int POOL_SIZE = 16;
+    private static final long STATEMENT_LATENCY_MILLIS = 5;
+    private static final long WARMUP_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MEASURE_NANOS = TimeUnit.SECONDS.toNanos(3);
+    private static final String AUTHORIZATION = "Basic dXNlcjp1c2Vy";
+    private static final String[] PATHS = {"/api/products?limit=50", "/api/orders?limit=20", "/api/customers/1"};
+
+    @Test
+    void platformThreadPool() throws Exception {
+        report("platform", run(false));
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void virtualThreads() throws Exception {
+        report("virtual", run(true));
+    }
+
+    private static List<Long> run(boolean virtual) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                SpringMvcObjectMapperApplication.class, BenchmarkConfig.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--spring.datasource.url=jdbc:h2:mem:threading-" + virtual + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--spring.jpa.show-sql=false")) {
+            new ResourceDatabasePopulator(new ClassPathResource("schema.sql"), new ClassPathResource("data.sql"))
+                    .execute(context.getBean(DataSource.class));
+            context.getBean(UserDetailsManager.class)
+                    .updateUser(User.withUsername("user").password("user").roles("USER").build());
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            for (String path : PATHS) {
+                assertEquals(200, send(client, port, path));
+            }
+            load(client, port, WARMUP_NANOS);
+            return load(client, port, MEASURE_NANOS);
+        }
+    }
+
+    private static List<Long> load(HttpClient client, int port, long durationNanos) throws Exception {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong errors = new AtomicLong();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long deadline = System.nanoTime() + durationNanos;
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            int first = i;
+            futures.add(clients.submit(() -> {
+                for (int request = first; System.nanoTime() < deadline; request++) {
+                    long start = System.nanoTime();
+                    if (send(client, port, PATHS[request % PATHS.length]) != 200) {
+                        errors.incrementAndGet();
+                    }
+                    latencies.add(System.nanoTime() - start);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        clients.shutdown();
+        assertEquals(0, errors.get());
+        assertTrue(latencies.size() > CLIENTS, latencies.size() + " requests");
+        return latencies;
+    }
+
+    private static int send(HttpClient client, int port, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path))
+                .header("Authorization", AUTHORIZATION)
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static void report(String mode, List<Long> latencies) {
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        System.out.printf("%-8s %,7d requests %,7d req/s p50 %,6.1f ms p99 %,6.1f ms max %,6.1f ms%n", mode,
+                sorted.size(), sorted.size() * TimeUnit.SECONDS.toNanos(1) / MEASURE_NANOS,
+                millis(sorted, 0.50), millis(sorted, 0.99), millis(sorted, 1.0));
+    }
+
+    private static double millis(List<Long> sorted, double quantile) {
+        int index = Math.min(sorted.size() - 1, (int) Math.ceil(quantile * sorted.size()) - 1);
+        return sorted.get(Math.max(index, 0)) / 1_000_000.0;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class BenchmarkConfig {
+
+        @Bean
+        @SuppressWarnings("deprecation")
+        PasswordEncoder passwordEncoder() {
+            return NoOpPasswordEncoder.getInstance();
+        }
+
+        @Bean
+        static BeanPostProcessor statementLatency() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? delayed(dataSource) : bean;
+                }
+            };
+        }
+
+        private static DataSource delayed(DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (method, result) -> result instanceof Connection connection
+                    ? proxy(Connection.class, connection, (connectionMethod, created) ->
+                            created instanceof Statement statement ? delayed(statement) : created)
+                    : result);
+        }
+
+        private static Statement delayed(Statement statement) {
+            Class<? extends Statement> type = statement instanceof CallableStatement ? CallableStatement.class
+                    : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+            return (Statement) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("execute")) {
+                            Thread.sleep(STATEMENT_LATENCY_MILLIS);
+                        }
+                        return invoke(method, statement, args);
+                    });
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, ResultMapper mapper) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> mapper.map(method, invoke(method, target, args)));
+        }
+
+        private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        @FunctionalInterface
+        private interface ResultMapper {
+            Object map(Method method, Object result);
+        }
+    }
+}
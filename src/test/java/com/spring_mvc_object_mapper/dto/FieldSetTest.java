@@ -0,0 +1,115 @@
+package com.spring_mvc_object_mapper.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spring_mvc_object_mapper.config.JacksonConfig;
+import com.spring_mvc_object_mapper.entity.Customer;
+import com.spring_mvc_object_mapper.entity.Order;
+import com.spring_mvc_object_mapper.entity.Product;
+import com.spring_mvc_object_mapper.exception.InvalidFieldsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FieldSetTest {
+
+    private ObjectMapper objectMapper;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        new JacksonConfig(null, null).fieldSetFilterCustomizer().customize(builder);
+        objectMapper = builder.build();
+
+        Customer customer = new Customer(1L, "John", "Doe", "john@example.com", "123", 0L);
+        Product first = new Product(1L, "Product A", "Description A", 10.0, 5, 0L);
+        Product second = new Product(2L, "Product B", "Description B", 20.0, 3, 0L);
+        order = new Order(7L, customer, List.of(first, second), LocalDate.of(2024, 1, 1), "Main St", 30.0, "Pending", 2L);
+    }
+
+    @Test
+    void shouldParseNestedPathsIntoCanonicalFormTest() {
+        FieldSet fields = FieldSet.valueOf(" products.price, orderId ,customer,customer.email,products.name");
+
+        assertEquals("customer,orderId,products.name,products.price", fields.toString());
+        assertEquals(FieldSet.valueOf("orderId,products.name,customer,products.price"), fields);
+        assertEquals(Set.of("customer", "orderId", "products"), fields.names());
+        assertTrue(fields.includes("customer.contactNumber"));
+        assertTrue(fields.includes("products"));
+        assertFalse(fields.includes("products.description"));
+        assertFalse(fields.includes("orderStatus"));
+    }
+
+    @Test
+    void shouldSelectEverythingWhenMissingOrBlankTest() {
+        assertSame(FieldSet.ALL, FieldSet.valueOf(null));
+        assertSame(FieldSet.ALL, FieldSet.valueOf(" "));
+        assertSame(FieldSet.ALL, FieldSet.valueOf(","));
+        assertTrue(FieldSet.ALL.includes("customer.email"));
+    }
+
+    @Test
+    void shouldReuseParsedFieldSetTest() {
+        assertSame(FieldSet.valueOf("orderId,orderStatus"), FieldSet.valueOf("orderId,orderStatus"));
+        assertSame(FieldSet.valueOf("orderId,orderStatus").filters(), FieldSet.valueOf("orderId,orderStatus").filters());
+    }
+
+    @Test
+    void shouldRejectMalformedPathsTest() {
+        Exception exception = assertThrows(InvalidFieldsException.class, () -> FieldSet.valueOf("orderId,customer..email"));
+
+        assertEquals("Invalid field: customer..email", exception.getMessage());
+        assertThrows(InvalidFieldsException.class, () -> FieldSet.valueOf("order-id"));
+    }
+
+    @Test
+    void shouldSerializeOnlySelectedPropertiesTest() throws Exception {
+        FieldSet fields = FieldSet.valueOf("orderId,customer.email,products.productId,products.price");
+
+        String json = objectMapper.writer(fields.filters()).writeValueAsString(List.of(OrderDetail.of(order)));
+
+        assertEquals("[{\"orderId\":7,\"customer\":{\"email\":\"john@example.com\"},"
+                + "\"products\":[{\"productId\":1,\"price\":10.0},{\"productId\":2,\"price\":20.0}]}]", json);
+    }
+
+    @Test
+    void shouldSerializeWholeSubtreeOfNamedPropertyTest() throws Exception {
+        FieldSet fields = FieldSet.valueOf("orderStatus,customer");
+
+        String json = objectMapper.writer(fields.filters()).writeValueAsString(order);
+
+        assertEquals("{\"customer\":{\"customerId\":1,\"firstName\":\"John\",\"lastName\":\"Doe\","
+                + "\"email\":\"john@example.com\",\"contactNumber\":\"123\",\"version\":0},\"orderStatus\":\"Pending\"}", json);
+    }
+
+    @Test
+    void shouldApplySelectionToEnvelopeDataOnlyTest() throws Exception {
+        FieldSet fields = FieldSet.valueOf("orderId,customerId");
+        OrderPage page = OrderPage.of(List.of(order), fields, OrderExpansion.of("none", "customer"), Map.of());
+
+        String json = objectMapper.writer(fields.filters()).writeValueAsString(page);
+
+        assertEquals("{\"data\":[{\"orderId\":7,\"customerId\":1}],\"included\":{\"customers\":[{\"customerId\":1,"
+                + "\"firstName\":\"John\",\"lastName\":\"Doe\",\"email\":\"john@example.com\",\"contactNumber\":\"123\"}]}}",
+                json);
+    }
+
+    @Test
+    void shouldSerializeEverythingWithoutFieldSelectionTest() throws Exception {
+        Product product = order.getProducts().get(0);
+
+        assertEquals(new ObjectMapper().writeValueAsString(product), objectMapper.writeValueAsString(product));
+    }
+}
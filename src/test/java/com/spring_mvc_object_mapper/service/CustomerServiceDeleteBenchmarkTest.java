@@ -0,0 +1,127 @@
+package com.spring_mvc_object_mapper.service;
+
+import com.spring_mvc_object_mapper.entity.Customer;
+import com.spring_mvc_object_mapper.entity.Order;
+import com.spring_mvc_object_mapper.entity.Product;
+import com.spring_mvc_object_mapper.repository.CustomerRepository;
+import com.spring_mvc_object_mapper.repository.OrderRepository;
+import com.spring_mvc_object_mapper.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Deletes a customer with a fixed number of orders while the orders table grows and prints the latency
+ * for each size. The statement count must not depend on how many orders other customers have.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class CustomerServiceDeleteBenchmarkTest {
+
+    private static final int[] ORDER_TABLE_SIZES = {1_000, 4_000, 16_000};
+    private static final int ORDERS_OF_DELETED_CUSTOMER = 20;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void deleteCustomerStatementCountStaysFlatAsOrdersTableGrows() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Product> products = productRepository.saveAll(List.of(product("Product A"), product("Product B")));
+        Customer otherCustomer = customerRepository.save(customer("Other"));
+        List<Long> statementCounts = new ArrayList<>();
+
+        for (int tableSize : ORDER_TABLE_SIZES) {
+            saveOrders(otherCustomer, products, tableSize - (int) orderRepository.count());
+            Customer deletedCustomer = customerRepository.save(customer("Deleted"));
+            saveOrders(deletedCustomer, products, ORDERS_OF_DELETED_CUSTOMER);
+
+            statistics.clear();
+            long start = System.nanoTime();
+            customerService.deleteCustomer(deletedCustomer.getCustomerId());
+            long elapsedMicros = (System.nanoTime() - start) / 1_000;
+
+            statementCounts.add(statistics.getPrepareStatementCount());
+            System.out.printf("deleteCustomer, %,d orders in table: %,d us, %d statements%n",
+                    tableSize + ORDERS_OF_DELETED_CUSTOMER, elapsedMicros, statistics.getPrepareStatementCount());
+            assertEquals(tableSize, orderRepository.count());
+        }
+
+        assertEquals(1, statementCounts.stream().distinct().count(),
+                "statement count changed with table size: " + statementCounts);
+    }
+
+    private void saveOrders(Customer customer, List<Product> products, int count) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Product> managedProducts = productRepository.findAllById(
+                    products.stream().map(Product::getProductId).toList());
+            List<Order> orders = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                orders.add(order(customer, managedProducts));
+            }
+            orderRepository.saveAll(orders);
+        });
+    }
+
+    private static Order order(Customer customer, List<Product> products) {
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setProducts(new ArrayList<>(products));
+        order.setOrderDate(LocalDate.of(2024, 1, 1));
+        order.setShippingAddress("123 Main St, Anytown USA");
+        order.setTotalPrice(20.0);
+        order.setOrderStatus("Pending");
+        return order;
+    }
+
+    private static Customer customer(String lastName) {
+        Customer customer = new Customer();
+        customer.setFirstName("John");
+        customer.setLastName(lastName);
+        customer.setEmail("johndoe@example.com");
+        customer.setContactNumber("1234567890");
+        return customer;
+    }
+
+    private static Product product(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription("This is a test product");
+        product.setPrice(10.0);
+        product.setQuantityInStock(100);
+        return product;
+    }
+}
@@ -1,8 +1,12 @@
 package com.spring_mvc_object_mapper.service;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.spring_mvc_object_mapper.dto.FieldSet;
 import com.spring_mvc_object_mapper.entity.Customer;
-import com.spring_mvc_object_mapper.entity.Order;
 import com.spring_mvc_object_mapper.exception.ConvertExceptionFromObject;
 import com.spring_mvc_object_mapper.exception.ConvertExceptionFromString;
 import com.spring_mvc_object_mapper.exception.CustomerNotFoundException;
@@ -11,15 +15,22 @@ import com.spring_mvc_object_mapper.repository.OrderRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
-import java.util.ArrayList;
+import org.springframework.data.domain.Limit;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -35,49 +46,49 @@ class CustomerServiceTest {
     @Mock
     private ObjectMapper objectMapper;
 
-    @InjectMocks
+    private JsonBytesCache jsonCache;
+
+    @Mock
+    private ObjectReader customerReader;
+
+    @Mock
+    private ObjectWriter customerWriter;
+
+    @Mock
+    private JsonImporter jsonImporter;
+
     private CustomerService customerService;
 
     private Customer customer;
 
     private String customerJson;
 
-    private Order order1;
-    private Order order2;
-    List<Order> mockOrders;
-
     @BeforeEach
     void setUp() {
+        when(objectMapper.readerFor(Customer.class)).thenReturn(customerReader);
+        when(objectMapper.writerFor(Customer.class)).thenReturn(customerWriter);
+        jsonCache = new JsonBytesCache(DataSize.ofKilobytes(64), DataSize.ofKilobytes(16));
+        customerService = new CustomerService(customerRepository, objectMapper, orderRepository, jsonCache, jsonImporter);
+
         customer = new Customer(); // Использование конструктора без аргументов
         customer.setCustomerId(1L);
         customer.setLastName("John Doe");
         customer.setEmail("johndoe@gmail.com");
 
         customerJson = "{\"id\":1,\"name\":\"John Doe\",\"email\":\"johndoe@gmail.com\"}";
-
-        order1 = new Order();
-        order1.setOrderId(101L);
-        order1.setCustomer(customer);
-
-        order2 = new Order();
-        order2.setOrderId(102L);
-        order2.setCustomer(customer);
-
-        mockOrders = new ArrayList<>();
-        mockOrders.add(order1);
-        mockOrders.add(order2);
     }
 
     @Test
-    void shouldReturnAllCustomersTest() {
+    void shouldReturnCustomersPageTest() {
         List<Customer> customersList = List.of(customer);
-        when(customerRepository.findAll()).thenReturn(customersList);
+        when(customerRepository.findByCustomerIdGreaterThanOrderByCustomerIdAsc(0L, Limit.of(50))).thenReturn(customersList);
 
-        List<Customer> result = customerService.getAllCustomers();
+        List<Customer> result = customerService.getCustomers(0L, 50, FieldSet.ALL);
 
         assertEquals(1, result.size());
         assertEquals(customer, result.get(0));
-        verify(customerRepository, times(1)).findAll();
+        verify(customerRepository, times(1)).findByCustomerIdGreaterThanOrderByCustomerIdAsc(0L, Limit.of(50));
+        verify(customerRepository, never()).findAll();
     }
 
     @Test
@@ -93,50 +104,71 @@ class CustomerServiceTest {
     }
 
     @Test
-    void shouldReturnCustomerAsJsonTest() throws Exception {
+    void shouldWriteCustomerAsJsonTest() throws Exception {
+        byte[] json = customerJson.getBytes(StandardCharsets.UTF_8);
+        customer.setVersion(0L);
         when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
-        when(objectMapper.writeValueAsString(customer)).thenReturn(customerJson);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write(json);
+            return null;
+        }).when(customerWriter).writeValue(any(OutputStream.class), eq(customer));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
-        String result = customerService.getCustomerAsJson(1L);
+        customerService.writeCustomerAsJson(1L, 0L, JsonBytesCache.Target.identity(outputStream));
 
-        assertEquals(customerJson, result);
+        assertArrayEquals(json, outputStream.toByteArray());
+        assertArrayEquals(json, jsonCache.get(Customer.class, 1L, 0L));
         verify(customerRepository, times(1)).findById(1L);
-        verify(objectMapper, times(1)).writeValueAsString(customer);
+    }
+
+    @Test
+    void shouldWriteCachedCustomerJsonForCurrentVersionTest() throws Exception {
+        byte[] json = customerJson.getBytes(StandardCharsets.UTF_8);
+        jsonCache.put(Customer.class, 1L, 0L, json);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        customerService.writeCustomerAsJson(1L, 0L, JsonBytesCache.Target.identity(outputStream));
+
+        assertArrayEquals(json, outputStream.toByteArray());
+        verify(customerRepository, never()).findById(1L);
+        verify(customerWriter, never()).writeValue(any(OutputStream.class), any());
     }
 
     @Test
     void shouldThrowExceptionWhenConvertingObjectToJsonFailsTest() throws Exception {
         when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
-        when(objectMapper.writeValueAsString(customer)).thenThrow(new RuntimeException("Serialization error"));
+        doThrow(new JsonMappingException(null, "Serialization error"))
+                .when(customerWriter).writeValue(any(OutputStream.class), eq(customer));
 
         Exception exception = assertThrows(ConvertExceptionFromObject.class, () -> {
-            customerService.getCustomerAsJson(1L);
+            customerService.writeCustomerAsJson(1L, 0L, JsonBytesCache.Target.identity(new ByteArrayOutputStream()));
         });
         assertEquals("Error converting from object", exception.getMessage());
-        verify(objectMapper, times(1)).writeValueAsString(customer);
+        assertNull(jsonCache.get(Customer.class, 1L, 0L));
     }
 
     @Test
     void shouldCreateCustomerFromJsonTest() throws Exception {
-        when(objectMapper.readValue(customerJson, Customer.class)).thenReturn(customer);
+        InputStream json = new ByteArrayInputStream(customerJson.getBytes(StandardCharsets.UTF_8));
+        when(jsonImporter.<Customer>read(eq(customerReader), eq(json), any())).thenReturn(JsonImport.single(customer));
 
-        Customer result = customerService.createCustomerFromJson(customerJson);
+        JsonImport<Customer> result = customerService.createCustomersFromJson(json);
 
-        assertEquals(customer, result);
-        verify(objectMapper, times(1)).readValue(customerJson, Customer.class);
+        assertEquals(customer, result.value());
+        verify(customerRepository, never()).saveAll(any());
     }
 
     @Test
     void shouldThrowExceptionWhenConvertingStringToObjectFailsTest() throws Exception {
-        when(objectMapper.readValue(customerJson, Customer.class)).thenThrow(new RuntimeException("Deserialization error"));
+        InputStream json = new ByteArrayInputStream(customerJson.getBytes(StandardCharsets.UTF_8));
+        when(jsonImporter.read(eq(customerReader), eq(json), any())).thenThrow(new JsonParseException(null, "Deserialization error"));
 
         Exception exception = assertThrows(ConvertExceptionFromString.class, () -> {
 
-            customerService.createCustomerFromJson(customerJson);
+            customerService.createCustomersFromJson(json);
         });
 
         assertEquals("Error converting from string", exception.getMessage());
-        verify(objectMapper, times(1)).readValue(customerJson, Customer.class);
     }
 
     @Test
@@ -164,14 +196,13 @@ class CustomerServiceTest {
     @Test
     void shouldDeleteCustomerTest() {
         when(customerRepository.existsById(customer.getCustomerId())).thenReturn(true);
-        when(orderRepository.findAll()).thenReturn(mockOrders);
         when(customerRepository.findById(customer.getCustomerId())).thenReturn(Optional.of(customer)); // getCustomerById
 
         customerService.deleteCustomer(customer.getCustomerId());
 
-        verify(orderRepository, times(1)).findAll();
-        verify(orderRepository, times(1)).delete(order1);
-        verify(orderRepository, times(1)).delete(order2);
+        verify(orderRepository, times(1)).deleteByCustomerId(customer.getCustomerId());
+        verify(orderRepository, never()).findAll();
+        verify(orderRepository, never()).delete(any());
         verify(customerRepository, times(1)).delete(customer);
     }
 }
@@ -0,0 +1,155 @@
+package com.spring_mvc_object_mapper.service;
+
+import com.spring_mvc_object_mapper.entity.Customer;
+import com.spring_mvc_object_mapper.entity.Order;
+import com.spring_mvc_object_mapper.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class JsonBytesCacheTest {
+
+    @Test
+    void shouldServeBytesOnlyForTheVersionTheyWereRenderedFromTest() {
+        JsonBytesCache cache = new JsonBytesCache(DataSize.ofKilobytes(64), DataSize.ofKilobytes(16));
+        byte[] json = "{\"productId\":1}".getBytes();
+
+        cache.put(Product.class, 1L, 2L, json);
+
+        assertArrayEquals(json, cache.get(Product.class, 1L, 2L));
+        assertNull(cache.get(Product.class, 1L, 3L));
+        assertNull(cache.get(Customer.class, 1L, 2L));
+    }
+
+    @Test
+    void shouldEvictOnlyTheGivenEntityTest() {
+        JsonBytesCache cache = new JsonBytesCache(DataSize.ofKilobytes(64), DataSize.ofKilobytes(16));
+        byte[] orderJson = new byte[10];
+        cache.put(Order.class, 1L, 0L, orderJson);
+        cache.put(Product.class, 1L, 0L, new byte[10]);
+
+        cache.evict(Product.class, 1L);
+
+        assertNull(cache.get(Product.class, 1L, 0L));
+        assertArrayEquals(orderJson, cache.get(Order.class, 1L, 0L));
+    }
+
+    @Test
+    void shouldRenderOnceAndThenWriteCachedBytesTest() throws Exception {
+        JsonBytesCache cache = new JsonBytesCache(DataSize.ofKilobytes(64), DataSize.ofKilobytes(16));
+        byte[] json = "{\"orderId\":1}".getBytes();
+        AtomicInteger renders = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            ByteArrayOutputStream target = new ByteArrayOutputStream();
+            cache.write(Order.class, 1L, 4L, target, out -> {
+                renders.incrementAndGet();
+                out.write(json);
+                out.close();
+                return 4L;
+            });
+            assertArrayEquals(json, target.toByteArray());
+        }
+
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    void shouldStreamPayloadsOverEntryLimitWithoutCachingThemTest() throws Exception {
+        JsonBytesCache cache = new JsonBytesCache(DataSize.ofKilobytes(64), DataSize.ofKilobytes(1));
+        byte[] json = new byte[4 * 1024];
+        AtomicInteger renders = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            ByteArrayOutputStream target = new ByteArrayOutputStream();
+            cache.write(Order.class, 1L, 0L, target, out -> {
+                renders.incrementAndGet();
+                out.write(json);
+                return 0L;
+            });
+            assertEquals(json.length, target.size());
+        }
+
+        assertEquals(2, renders.get());
+        assertNull(cache.get(Order.class, 1L, 0L));
+    }
+
+    @Test
+    void shouldServeCachedPayloadsGzippedOnlyAboveMinimumSizeTest() throws Exception {
+        JsonBytesCache cache = new JsonBytesCache(DataSize.ofKilobytes(64), DataSize.ofKilobytes(16),
+                Deflater.BEST_COMPRESSION, DataSize.ofBytes(100));
+        byte[] large = "{\"name\":\"product\"}".repeat(20).getBytes();
+        byte[] small = "{\"productId\":1}".getBytes();
+        cache.put(Product.class, 1L, 0L, large);
+        cache.put(Product.class, 2L, 0L, small);
+        RecordingTarget target = new RecordingTarget(true);
+
+        cache.write(Product.class, 1L, 0L, target, out -> fail("rendered a cached payload"));
+        assertTrue(target.gzip);
+        assertEquals(target.body.size(), target.length);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(target.body.toByteArray()))) {
+            assertArrayEquals(large, in.readAllBytes());
+        }
+
+        target = new RecordingTarget(true);
+        cache.write(Product.class, 2L, 0L, target, out -> fail("rendered a cached payload"));
+        assertFalse(target.gzip);
+        assertArrayEquals(small, target.body.toByteArray());
+
+        target = new RecordingTarget(false);
+        cache.write(Product.class, 1L, 0L, target, out -> fail("rendered a cached payload"));
+        assertFalse(target.gzip);
+        assertArrayEquals(large, target.body.toByteArray());
+    }
+
+    @Test
+    void shouldKeepTotalPayloadWithinConfiguredBytesTest() {
+        DataSize maxSize = DataSize.ofKilobytes(64);
+        JsonBytesCache cache = new JsonBytesCache(maxSize, DataSize.ofKilobytes(16));
+
+        for (long id = 1; id <= 1_000; id++) {
+            cache.put(Product.class, id, 0L, new byte[1_024]);
+        }
+        cache.cleanUp();
+
+        assertTrue(cache.weightedSize() <= maxSize.toBytes(), "weighted size " + cache.weightedSize());
+    }
+
+    private static final class RecordingTarget implements JsonBytesCache.Target {
+
+        private final boolean acceptsGzip;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private boolean gzip;
+        private int length = -1;
+
+        RecordingTarget(boolean acceptsGzip) {
+            this.acceptsGzip = acceptsGzip;
+        }
+
+        @Override
+        public boolean acceptsGzip() {
+            return acceptsGzip;
+        }
+
+        @Override
+        public OutputStream open(boolean gzip, int length) {
+            this.gzip = gzip;
+            this.length = length;
+            return body;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.spring_mvc_object_mapper.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.spring_mvc_object_mapper.entity.Product;
+import com.spring_mvc_object_mapper.exception.ConvertExceptionFromString;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JsonImporterTest {
+
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectReader productReader = new ObjectMapper().readerFor(Product.class);
+
+    private JsonImporter jsonImporter;
+
+    private List<List<String>> savedChunks;
+
+    private int transactions;
+
+    @BeforeEach
+    void setUp() {
+        jsonImporter = new JsonImporter(VALIDATOR, entityManager, new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                transactions++;
+                return action.doInTransaction(null);
+            }
+        }, 2);
+        savedChunks = new ArrayList<>();
+    }
+
+    @Test
+    void shouldReturnSingleObjectWithoutSavingTest() throws IOException {
+        JsonImport<Product> result = read("{\"productId\":7,\"name\":\"Product 7\",\"price\":10.0}");
+
+        assertFalse(result.isBulk());
+        assertEquals(7L, result.value().getProductId());
+        assertTrue(savedChunks.isEmpty());
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void shouldSaveArrayInChunksTest() throws IOException {
+        JsonImport<Product> result = read(array(5));
+
+        assertTrue(result.isBulk());
+        assertEquals(5, result.savedCount());
+        assertEquals(List.of(List.of("P0", "P1"), List.of("P2", "P3"), List.of("P4")), savedChunks);
+        assertEquals(3, transactions);
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    void shouldSaveNewlineDelimitedObjectsInChunksTest() throws IOException {
+        JsonImport<Product> result = read(product(0) + "\n" + product(1) + "\n" + product(2) + "\n");
+
+        assertEquals(3, result.savedCount());
+        assertEquals(List.of(List.of("P0", "P1"), List.of("P2")), savedChunks);
+    }
+
+    @Test
+    void shouldSaveNothingForEmptyArrayTest() throws IOException {
+        JsonImport<Product> result = read("[]");
+
+        assertTrue(result.isBulk());
+        assertEquals(0, result.savedCount());
+        assertTrue(savedChunks.isEmpty());
+        assertEquals(0, transactions);
+    }
+
+    @Test
+    void shouldStopAtFirstInvalidElementTest() {
+        String json = "[" + product(0) + "," + product(1) + "," + product(2) + ",{\"name\":\"\",\"price\":-1}]";
+
+        Exception exception = assertThrows(ConvertExceptionFromString.class, () -> read(json));
+
+        assertEquals("Invalid element at index 3, after 2 saved: Name is required., Price must be positive.",
+                exception.getMessage());
+        assertEquals(List.of(List.of("P0", "P1")), savedChunks);
+        assertEquals(1, transactions);
+    }
+
+    @Test
+    void shouldRejectEmptyBodyAndMalformedElementTest() {
+        assertThrows(JsonProcessingException.class, () -> read(""));
+        assertThrows(JsonProcessingException.class, () -> read("[" + product(0) + ",{\"name\":"));
+    }
+
+    @Test
+    void shouldKeepOnlyOneChunkOfLargeUploadTest() throws IOException {
+        int count = 100_000;
+        InputStream json = new SequenceInputStream(Collections.enumeration(IntStream.range(0, count)
+                .mapToObj(i -> new ByteArrayInputStream((product(i) + "\n").getBytes(StandardCharsets.UTF_8)))
+                .collect(Collectors.toList())));
+        int[] largestChunk = {0};
+        long[] saved = {0};
+
+        JsonImport<Product> result = jsonImporter.read(productReader, json, (List<Product> products) -> {
+            largestChunk[0] = Math.max(largestChunk[0], products.size());
+            saved[0] += products.size();
+        });
+
+        assertEquals(count, result.savedCount());
+        assertEquals(count, saved[0]);
+        assertEquals(2, largestChunk[0]);
+    }
+
+    private JsonImport<Product> read(String json) throws IOException {
+        return jsonImporter.read(productReader, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)),
+                (List<Product> products) -> savedChunks.add(products.stream().map(Product::getName).toList()));
+    }
+
+    private static String array(int size) {
+        return IntStream.range(0, size)
+                .mapToObj(JsonImporterTest::product)
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    private static String product(int index) {
+        return "{\"name\":\"P" + index + "\",\"description\":\"d\",\"price\":10.0,\"quantityInStock\":1}";
+    }
+}
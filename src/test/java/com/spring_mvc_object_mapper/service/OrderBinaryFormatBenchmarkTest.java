@@ -0,0 +1,152 @@
+package com.spring_mvc_object_mapper.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.spring_mvc_object_mapper.entity.Customer;
+import com.spring_mvc_object_mapper.entity.Order;
+import com.spring_mvc_object_mapper.entity.Product;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares JSON with the Smile and CBOR bodies the endpoints negotiate: the payload size and the write and parse
+ * throughput of a single order with {@value #PRODUCTS_PER_ORDER} products and of a batch of {@value #BATCH_SIZE}
+ * such orders. The three mappers are built the way {@code JacksonConfig} builds them, and every format must read
+ * back the order it was written from.
+ */
+@Tag("benchmark")
+class OrderBinaryFormatBenchmarkTest {
+
+    private static final int PRODUCTS_PER_ORDER = 60;
+    private static final int BATCH_SIZE = 50;
+    private static final long WARMUP_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MEASURE_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final TypeReference<List<Order>> ORDER_LIST = new TypeReference<>() {
+    };
+
+    private static volatile Object sink;
+
+    @Test
+    void binaryFormatsRoundTripOrdersAndReportSizeAndThroughput() throws Exception {
+        List<Order> batch = new ArrayList<>();
+        for (long id = 1; id <= BATCH_SIZE; id++) {
+            batch.add(order(id));
+        }
+        Order order = batch.get(0);
+
+        int jsonOrderSize = 0;
+        int jsonBatchSize = 0;
+        for (Format format : Format.values()) {
+            ObjectMapper mapper = format.mapper();
+            ObjectWriter orderWriter = mapper.writerFor(Order.class);
+            ObjectReader orderReader = mapper.readerFor(Order.class);
+            ObjectWriter batchWriter = mapper.writerFor(ORDER_LIST);
+            ObjectReader batchReader = mapper.readerFor(ORDER_LIST);
+
+            byte[] orderBytes = orderWriter.writeValueAsBytes(order);
+            byte[] batchBytes = batchWriter.writeValueAsBytes(batch);
+            assertEquals(order, orderReader.readValue(orderBytes));
+            assertEquals(batch, batchReader.readValue(batchBytes));
+            if (format == Format.JSON) {
+                jsonOrderSize = orderBytes.length;
+                jsonBatchSize = batchBytes.length;
+            } else {
+                assertTrue(orderBytes.length < jsonOrderSize, format + " order is " + orderBytes.length + " bytes");
+                assertTrue(batchBytes.length < jsonBatchSize, format + " batch is " + batchBytes.length + " bytes");
+            }
+
+            System.out.printf("%-5s order %,9d bytes (%3d%% of JSON), batch %,9d bytes (%3d%% of JSON)%n", format,
+                    orderBytes.length, 100 * orderBytes.length / jsonOrderSize,
+                    batchBytes.length, 100 * batchBytes.length / jsonBatchSize);
+            report(format + " write order", () -> orderWriter.writeValueAsBytes(order));
+            report(format + " parse order", () -> orderReader.readValue(orderBytes));
+            report(format + " parse batch", () -> batchReader.readValue(batchBytes));
+        }
+    }
+
+    private static void report(String label, Operation operation) throws Exception {
+        run(operation, WARMUP_NANOS);
+        long operations = run(operation, MEASURE_NANOS);
+        long nanosPerOperation = MEASURE_NANOS / operations;
+        System.out.printf("%-20s %,10d ops/s %,10d ns/op%n", label,
+                operations * TimeUnit.SECONDS.toNanos(1) / MEASURE_NANOS, nanosPerOperation);
+    }
+
+    private static long run(Operation operation, long durationNanos) throws Exception {
+        long operations = 0;
+        long deadline = System.nanoTime() + durationNanos;
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < 10; i++) {
+                sink = operation.run();
+            }
+            operations += 10;
+        }
+        return operations;
+    }
+
+    private static Order order(long orderId) {
+        Customer customer = new Customer();
+        customer.setCustomerId(orderId);
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setEmail("johndoe" + orderId + "@example.com");
+        customer.setContactNumber("1234567890");
+        customer.setVersion(0L);
+
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= PRODUCTS_PER_ORDER; id++) {
+            Product product = new Product();
+            product.setProductId(id);
+            product.setName("Product " + id);
+            product.setDescription("This is a test product");
+            product.setPrice(10.0 + id);
+            product.setQuantityInStock(100);
+            product.setVersion(id % 3);
+            products.add(product);
+        }
+
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setCustomer(customer);
+        order.setProducts(products);
+        order.setOrderDate(LocalDate.of(2024, 1, 1));
+        order.setShippingAddress("123 Main St, Anytown USA");
+        order.setTotalPrice(products.stream().mapToDouble(Product::getPrice).sum());
+        order.setOrderStatus("Pending");
+        order.setVersion(0L);
+        return order;
+    }
+
+    private enum Format {
+        JSON, SMILE, CBOR;
+
+        ObjectMapper mapper() {
+            Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder()
+                    .modulesToInstall(new JavaTimeModule())
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+            return switch (this) {
+                case JSON -> builder.build();
+                case SMILE -> builder.smile().build();
+                case CBOR -> builder.cbor().build();
+            };
+        }
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        Object run() throws Exception;
+    }
+}
@@ -0,0 +1,144 @@
+package com.spring_mvc_object_mapper.service;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.spring_mvc_object_mapper.entity.Customer;
+import com.spring_mvc_object_mapper.entity.Order;
+import com.spring_mvc_object_mapper.entity.Product;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures the bytes allocated per request to render an order with {@value #LINE_ITEMS} line items: through an
+ * intermediate String as the endpoints used to, through a byte array, streamed to the response once the payload is
+ * known to be too large to cache, and streamed while a copy is kept for the cache after every write to the order.
+ * All paths must produce the same bytes.
+ */
+@Tag("benchmark")
+class OrderJsonAllocationBenchmarkTest {
+
+    private static final int LINE_ITEMS = 1_000;
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int MEASURED_ITERATIONS = 200;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void streamingAllocatesLessThanBufferingAndKeepsBytes() throws Exception {
+        Order order = order();
+        ObjectWriter writer = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writerFor(Order.class);
+        JsonBytesCache streamingCache = new JsonBytesCache(DataSize.ofMegabytes(16), DataSize.ofKilobytes(64));
+        JsonBytesCache capturingCache = new JsonBytesCache(DataSize.ofMegabytes(16), DataSize.ofMegabytes(1));
+
+        Render viaString = out -> out.write(writer.writeValueAsString(order).getBytes(StandardCharsets.UTF_8));
+        Render viaBytes = out -> out.write(writer.writeValueAsBytes(order));
+        Render streamed = out -> streamingCache.write(Order.class, 1L, 0L, out, target -> {
+            writer.writeValue(target, order);
+            return 0L;
+        });
+        Render streamedAndCached = new Render() {
+            private long version;
+
+            @Override
+            public void to(OutputStream out) throws Exception {
+                long renderedVersion = ++version;
+                capturingCache.write(Order.class, 1L, renderedVersion, out, target -> {
+                    writer.writeValue(target, order);
+                    return renderedVersion;
+                });
+            }
+        };
+
+        byte[] expected = render(viaString);
+        assertArrayEquals(expected, render(viaBytes));
+        assertArrayEquals(expected, render(streamed));
+        assertArrayEquals(expected, render(streamedAndCached));
+
+        System.out.printf("Order JSON with %,d line items, %,d bytes%n", LINE_ITEMS, expected.length);
+        long stringBytes = report("writeValueAsString + getBytes", viaString);
+        report("writeValueAsBytes", viaBytes);
+        long streamedBytes = report("streamed to response", streamed);
+        report("streamed to response + cached copy", streamedAndCached);
+
+        assertTrue(streamedBytes < stringBytes,
+                "streaming allocated " + streamedBytes + " bytes, buffering through a String " + stringBytes);
+    }
+
+    private static byte[] render(Render render) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        render.to(out);
+        return out.toByteArray();
+    }
+
+    private static long report(String label, Render render) throws Exception {
+        OutputStream socket = OutputStream.nullOutputStream();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            render.to(socket);
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = THREADS.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            render.to(socket);
+        }
+        long perRequest = (THREADS.getThreadAllocatedBytes(threadId) - before) / MEASURED_ITERATIONS;
+        System.out.printf("%-40s %,10d bytes allocated per request%n", label, perRequest);
+        return perRequest;
+    }
+
+    private static Order order() {
+        Customer customer = new Customer();
+        customer.setCustomerId(1L);
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setEmail("johndoe@example.com");
+        customer.setContactNumber("1234567890");
+        customer.setVersion(0L);
+
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= LINE_ITEMS; id++) {
+            Product product = new Product();
+            product.setProductId(id);
+            product.setName("Product " + id);
+            product.setDescription("This is a test product");
+            product.setPrice(10.0);
+            product.setQuantityInStock(100);
+            product.setVersion(0L);
+            products.add(product);
+        }
+
+        Order order = new Order();
+        order.setOrderId(1L);
+        order.setCustomer(customer);
+        order.setProducts(products);
+        order.setOrderDate(LocalDate.of(2024, 1, 1));
+        order.setShippingAddress("123 Main St, Anytown USA");
+        order.setTotalPrice(10.0 * LINE_ITEMS);
+        order.setOrderStatus("Pending");
+        order.setVersion(0L);
+        return order;
+    }
+
+    @FunctionalInterface
+    private interface Render {
+        void to(OutputStream out) throws Exception;
+    }
+}
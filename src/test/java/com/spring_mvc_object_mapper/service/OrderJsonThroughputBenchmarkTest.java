@@ -0,0 +1,131 @@
+package com.spring_mvc_object_mapper.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.spring_mvc_object_mapper.entity.Customer;
+import com.spring_mvc_object_mapper.entity.Order;
+import com.spring_mvc_object_mapper.entity.Product;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Serializes and parses an order with {@value #PRODUCTS_PER_ORDER} products through the generic mapper calls the
+ * services used to make, through prebuilt readers and writers, and through prebuilt ones with Blackbird enabled,
+ * and prints the throughput of each. All three must produce the same JSON.
+ */
+@Tag("benchmark")
+class OrderJsonThroughputBenchmarkTest {
+
+    private static final int PRODUCTS_PER_ORDER = 60;
+    private static final long WARMUP_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MEASURE_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private static volatile Object sink;
+
+    @Test
+    void prebuiltReadersAndWritersKeepOutputAndReportThroughput() throws Exception {
+        Order order = order();
+        ObjectMapper mapper = mapper(false);
+        ObjectMapper blackbirdMapper = mapper(true);
+        ObjectWriter writer = mapper.writerFor(Order.class);
+        ObjectReader reader = mapper.readerFor(Order.class);
+        ObjectWriter blackbirdWriter = blackbirdMapper.writerFor(Order.class);
+        ObjectReader blackbirdReader = blackbirdMapper.readerFor(Order.class);
+
+        byte[] json = mapper.writeValueAsString(order).getBytes(StandardCharsets.UTF_8);
+        String jsonString = new String(json, StandardCharsets.UTF_8);
+        assertArrayEquals(json, writer.writeValueAsBytes(order));
+        assertArrayEquals(json, blackbirdWriter.writeValueAsBytes(order));
+        assertEquals(order, mapper.readValue(jsonString, Order.class));
+        assertEquals(order, reader.readValue(json));
+        assertEquals(order, blackbirdReader.readValue(json));
+
+        System.out.printf("Order JSON with %d products, %,d bytes%n", PRODUCTS_PER_ORDER, json.length);
+        report("write, mapper.writeValueAsString", () -> mapper.writeValueAsString(order).getBytes(StandardCharsets.UTF_8));
+        report("write, prebuilt ObjectWriter", () -> writer.writeValueAsBytes(order));
+        report("write, prebuilt ObjectWriter + Blackbird", () -> blackbirdWriter.writeValueAsBytes(order));
+        report("read, mapper.readValue(String, Class)", () -> mapper.readValue(jsonString, Order.class));
+        report("read, prebuilt ObjectReader", () -> reader.readValue(json));
+        report("read, prebuilt ObjectReader + Blackbird", () -> blackbirdReader.readValue(json));
+    }
+
+    private static ObjectMapper mapper(boolean blackbird) {
+        JsonMapper.Builder builder = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (blackbird) {
+            builder.addModule(new BlackbirdModule());
+        }
+        return builder.build();
+    }
+
+    private static void report(String label, Operation operation) throws Exception {
+        run(operation, WARMUP_NANOS);
+        long operations = run(operation, MEASURE_NANOS);
+        System.out.printf("%-45s %,10d ops/s%n", label, operations * TimeUnit.SECONDS.toNanos(1) / MEASURE_NANOS);
+    }
+
+    private static long run(Operation operation, long durationNanos) throws Exception {
+        long operations = 0;
+        long deadline = System.nanoTime() + durationNanos;
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < 100; i++) {
+                sink = operation.run();
+            }
+            operations += 100;
+        }
+        return operations;
+    }
+
+    private static Order order() {
+        Customer customer = new Customer();
+        customer.setCustomerId(1L);
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setEmail("johndoe@example.com");
+        customer.setContactNumber("1234567890");
+        customer.setVersion(0L);
+
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= PRODUCTS_PER_ORDER; id++) {
+            Product product = new Product();
+            product.setProductId(id);
+            product.setName("Product " + id);
+            product.setDescription("This is a test product");
+            product.setPrice(10.0 + id);
+            product.setQuantityInStock(100);
+            product.setVersion(id % 3);
+            products.add(product);
+        }
+
+        Order order = new Order();
+        order.setOrderId(1L);
+        order.setCustomer(customer);
+        order.setProducts(products);
+        order.setOrderDate(LocalDate.of(2024, 1, 1));
+        order.setShippingAddress("123 Main St, Anytown USA");
+        order.setTotalPrice(products.stream().mapToDouble(Product::getPrice).sum());
+        order.setOrderStatus("Pending");
+        order.setVersion(0L);
+        return order;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        Object run() throws Exception;
+    }
+}
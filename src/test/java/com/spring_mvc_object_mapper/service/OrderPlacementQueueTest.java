@@ -0,0 +1,144 @@
+package com.spring_mvc_object_mapper.service;
+
+import com.spring_mvc_object_mapper.dto.OrderTicket;
+import com.spring_mvc_object_mapper.entity.Customer;
+import com.spring_mvc_object_mapper.entity.Order;
+import com.spring_mvc_object_mapper.entity.Product;
+import com.spring_mvc_object_mapper.exception.OrderQueueFullException;
+import com.spring_mvc_object_mapper.exception.OrderTicketNotFoundException;
+import com.spring_mvc_object_mapper.exception.ProductOutOfStockException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderPlacementQueueTest {
+
+    @Mock
+    private OrderService orderService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OrderPlacementQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        queue = new OrderPlacementQueue(orderService, meterRegistry, 3, 10, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void shouldPlaceQueuedOrdersTogetherInOneBatchTest() {
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            for (int i = 0; i < orders.size(); i++) {
+                orders.get(i).setOrderId(100L + i);
+            }
+            return orders;
+        });
+        OrderTicket first = queue.submit(order("Address 1"));
+        OrderTicket second = queue.submit(order("Address 2"));
+
+        assertEquals(OrderTicket.Status.PENDING, queue.getTicket(first.ticketId()).status());
+        assertEquals(2, queue.placeQueued());
+
+        verify(orderService).createOrders(argThat(orders -> orders.size() == 2));
+        verify(orderService, never()).createOrder(any(), any(), any());
+        assertEquals(OrderTicket.placed(first.ticketId(), 100L), queue.getTicket(first.ticketId()));
+        assertEquals(OrderTicket.placed(second.ticketId(), 101L), queue.getTicket(second.ticketId()));
+        assertEquals(0.0, meterRegistry.get("orders.async.queue.depth").gauge().value());
+        assertEquals(2.0, meterRegistry.get("orders.async.batch.size").summary().totalAmount());
+        assertEquals(2, meterRegistry.get("orders.async.latency").tag("outcome", "placed").timer().count());
+    }
+
+    @Test
+    void shouldPlaceOrdersOfARolledBackBatchOneByOneTest() {
+        when(orderService.createOrders(anyList()))
+                .thenThrow(new ProductOutOfStockException("Product with ID: 1 is out of stock"));
+        Order placed = order("Address 1");
+        when(orderService.createOrder(argThat(order -> order != null && "Address 1".equals(order.getShippingAddress())),
+                any(), any())).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setOrderId(7L);
+            return order;
+        });
+        when(orderService.createOrder(argThat(order -> order != null && "Address 2".equals(order.getShippingAddress())),
+                any(), any())).thenThrow(new ProductOutOfStockException("Product with ID: 1 is out of stock"));
+        OrderTicket first = queue.submit(placed);
+        OrderTicket second = queue.submit(order("Address 2"));
+
+        queue.placeQueued();
+
+        assertEquals(OrderTicket.placed(first.ticketId(), 7L), queue.getTicket(first.ticketId()));
+        assertEquals(OrderTicket.failed(second.ticketId(), "Product with ID: 1 is out of stock"),
+                queue.getTicket(second.ticketId()));
+        assertNull(placed.getOrderId());
+        assertEquals(1, meterRegistry.get("orders.async.latency").tag("outcome", "failed").timer().count());
+    }
+
+    @Test
+    void shouldNotExposeMessagesOfUnexpectedFailuresTest() {
+        when(orderService.createOrders(anyList()))
+                .thenThrow(new IllegalStateException("could not execute statement [insert into orders ...]"));
+        OrderTicket ticket = queue.submit(order("Address 1"));
+
+        queue.placeQueued();
+
+        assertEquals(OrderTicket.failed(ticket.ticketId(), "Order could not be placed"),
+                queue.getTicket(ticket.ticketId()));
+    }
+
+    @Test
+    void shouldKeepTicketsWhileQueuedAndForTheirTtlAfterTheOutcomeTest() throws InterruptedException {
+        queue = new OrderPlacementQueue(orderService, meterRegistry, 3, 10, Duration.ofMillis(200));
+        when(orderService.createOrders(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        OrderTicket ticket = queue.submit(order("Address 1"));
+
+        Thread.sleep(300);
+        assertEquals(OrderTicket.Status.PENDING, queue.getTicket(ticket.ticketId()).status());
+        queue.placeQueued();
+        Thread.sleep(100);
+        assertEquals(OrderTicket.Status.PLACED, queue.getTicket(ticket.ticketId()).status());
+        Thread.sleep(300);
+
+        assertThrows(OrderTicketNotFoundException.class, () -> queue.getTicket(ticket.ticketId()));
+    }
+
+    @Test
+    void shouldRejectOrdersWhenTheQueueIsFullTest() {
+        for (int i = 0; i < 3; i++) {
+            queue.submit(order("Address " + i));
+        }
+
+        assertThrows(OrderQueueFullException.class, () -> queue.submit(order("Address 3")));
+        assertThrows(OrderTicketNotFoundException.class, () -> queue.getTicket("unknown"));
+        assertEquals(3.0, meterRegistry.get("orders.async.queue.depth").gauge().value());
+        assertEquals(1.0, meterRegistry.get("orders.async.rejected").counter().count());
+    }
+
+    private static Order order(String shippingAddress) {
+        Customer customer = new Customer();
+        customer.setCustomerId(1L);
+        Product product = new Product();
+        product.setProductId(1L);
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setProducts(List.of(product));
+        order.setShippingAddress(shippingAddress);
+        order.setOrderStatus("NEW");
+        order.setTotalPrice(0.0);
+        return order;
+    }
+}
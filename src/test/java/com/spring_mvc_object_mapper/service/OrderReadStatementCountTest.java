@@ -0,0 +1,132 @@
+package com.spring_mvc_object_mapper.service;
+
+import com.spring_mvc_object_mapper.dto.FieldSet;
+import com.spring_mvc_object_mapper.dto.OrderDetail;
+import com.spring_mvc_object_mapper.dto.OrderExpansion;
+import com.spring_mvc_object_mapper.dto.OrderPage;
+import com.spring_mvc_object_mapper.dto.OrderSummary;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the SQL statements behind the order list, detail and export reads, which must not grow with the number of
+ * orders on a page or products on an order.
+ */
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:statementcount;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@ActiveProfiles("test")
+@Sql(scripts = "/schema.sql")
+@Sql(scripts = "/data.sql")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class OrderReadStatementCountTest {
+
+    private static final int ORDERS = 120;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> lines = new ArrayList<>();
+        for (long orderId = 2; orderId < 2 + ORDERS; orderId++) {
+            orders.add(new Object[]{orderId});
+            for (long productId = 1; productId <= 3; productId++) {
+                lines.add(new Object[]{orderId, productId});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO orders (order_id, order_date, order_status, shipping_address, "
+                + "total_price, customer_id, version) VALUES (?, '2021-01-01', 'Pending', 'Main St', 30.00, 1, 0)", orders);
+        jdbcTemplate.batchUpdate("INSERT INTO orders_products (order_id, product_id) VALUES (?, ?)", lines);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void shouldReadOrderPagesWithOneStatementEachTest() {
+        assertEquals(1, statementsFor(() -> orderService.getOrders(0L, 5, FieldSet.ALL, OrderExpansion.FULL)));
+
+        statistics.clear();
+        List<OrderSummary> page = orderService.getOrders(0L, 100, FieldSet.ALL, OrderExpansion.FULL).data();
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(100, page.size());
+        assertEquals(2, page.get(0).products().size());
+        assertEquals(3, page.get(99).products().size());
+
+        assertEquals(1, statementsFor(() -> orderService.getOrdersVersion(0L, 100)));
+
+        for (String fields : List.of("orderId,orderStatus", "orderId,customer.email", "orderId,products.price")) {
+            assertEquals(1, statementsFor(() -> orderService.getOrders(0L, 100, FieldSet.valueOf(fields),
+                    OrderExpansion.FULL)), fields);
+        }
+    }
+
+    @Test
+    void shouldReadReferencedOrderPagesWithTwoStatementsTest() {
+        statistics.clear();
+        OrderPage page = orderService.getOrders(0L, 100, FieldSet.ALL, OrderExpansion.NONE);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(1L, page.data().get(0).customerId());
+        assertEquals(List.of(1L, 2L, 3L), page.data().get(99).productIds());
+
+        OrderExpansion included = OrderExpansion.of(null, "customer,products");
+        statistics.clear();
+        page = orderService.getOrders(0L, 100, FieldSet.ALL, included);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, page.included().customers().size());
+        assertEquals(3, page.included().products().size());
+    }
+
+    @Test
+    void shouldReadOrderDetailWithOneStatementTest() {
+        statistics.clear();
+        OrderDetail order = orderService.getOrderDetail(2L, FieldSet.ALL);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals("John", order.customer().firstName());
+        assertEquals(3, order.products().size());
+
+        assertEquals(1, statementsFor(() -> orderService.getOrderVersion(2L)));
+    }
+
+    @Test
+    void shouldExportOrdersWithTwoStatementsPerChunkTest() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        statistics.clear();
+        orderService.exportOrders(output);
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(ORDERS + 1, lines.length);
+        assertTrue(lines[ORDERS].contains("\"productId\":3"));
+    }
+
+    private long statementsFor(Runnable read) {
+        statistics.clear();
+        read.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
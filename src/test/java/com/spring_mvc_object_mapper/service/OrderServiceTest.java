@@ -1,28 +1,54 @@
 package com.spring_mvc_object_mapper.service;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.spring_mvc_object_mapper.dto.FieldSet;
+import com.spring_mvc_object_mapper.dto.OrderDetail;
+import com.spring_mvc_object_mapper.dto.OrderExpansion;
+import com.spring_mvc_object_mapper.dto.OrderPage;
+import com.spring_mvc_object_mapper.dto.OrderSummary;
 import com.spring_mvc_object_mapper.entity.Customer;
 import com.spring_mvc_object_mapper.entity.Order;
 import com.spring_mvc_object_mapper.entity.Product;
 import com.spring_mvc_object_mapper.exception.ConvertExceptionFromObject;
 import com.spring_mvc_object_mapper.exception.ConvertExceptionFromString;
 import com.spring_mvc_object_mapper.exception.CustomerNotFoundException;
+import com.spring_mvc_object_mapper.exception.InvalidOrderException;
 import com.spring_mvc_object_mapper.exception.OrderNotFoundException;
+import com.spring_mvc_object_mapper.exception.ProductOutOfStockException;
 import com.spring_mvc_object_mapper.repository.CustomerRepository;
+import com.spring_mvc_object_mapper.repository.OrderLine;
 import com.spring_mvc_object_mapper.repository.OrderRepository;
-import com.spring_mvc_object_mapper.repository.ProductRepository;
+import com.spring_mvc_object_mapper.repository.OrderVersionRow;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.data.domain.Limit;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,7 +61,7 @@ class OrderServiceTest {
     private CustomerRepository customerRepository;
 
     @Mock
-    private ProductRepository productRepository;
+    private CustomerService customerService;
 
     @Mock
     private ProductService productService;
@@ -43,7 +69,23 @@ class OrderServiceTest {
     @Mock
     private ObjectMapper objectMapper;
 
-    @InjectMocks
+    @Mock
+    private EntityManager entityManager;
+
+    private JsonBytesCache jsonCache;
+
+    @Mock
+    private ObjectReader orderReader;
+
+    @Mock
+    private ObjectWriter orderWriter;
+
+    @Mock
+    private ObjectWriter orderDetailWriter;
+
+    @Mock
+    private JsonImporter jsonImporter;
+
     private OrderService orderService;
 
     private Long orderId;
@@ -57,6 +99,13 @@ class OrderServiceTest {
 
     @BeforeEach
     void setUp() {
+        when(objectMapper.readerFor(Order.class)).thenReturn(orderReader);
+        when(objectMapper.writerFor(Order.class)).thenReturn(orderWriter);
+        when(objectMapper.writerFor(OrderDetail.class)).thenReturn(orderDetailWriter);
+        jsonCache = new JsonBytesCache(DataSize.ofKilobytes(64), DataSize.ofKilobytes(16));
+        orderService = new OrderService(orderRepository, customerRepository, customerService, productService,
+                objectMapper, entityManager, jsonCache, jsonImporter);
+
         orderId = 1L;
         customerId = 1L;
         productId = 1L;
@@ -82,14 +131,103 @@ class OrderServiceTest {
     }
 
     @Test
-    void shouldReturnAllOrdersTest() {
-        when(orderRepository.findAll()).thenReturn(List.of(order));
+    void shouldReturnOrdersPageTest() {
+        when(orderRepository.findPageWithCustomerAndProducts(0L, 50)).thenReturn(List.of(order));
 
-        List<Order> result = orderService.getAllOrders();
+        List<OrderSummary> result = orderService.getOrders(0L, 50, FieldSet.ALL, OrderExpansion.FULL).data();
 
         assertEquals(1, result.size());
-        assertEquals(order, result.get(0));
-        verify(orderRepository, times(1)).findAll();
+        assertEquals(orderId, result.get(0).orderId());
+        assertEquals("johndoe@gmail.com", result.get(0).customer().email());
+        assertEquals(List.of(new OrderSummary.ProductSummary(productId, "Product A", null, 100.0, 10)),
+                result.get(0).products());
+        assertNull(result.get(0).customerId());
+        assertNull(result.get(0).productIds());
+        verify(orderRepository, times(1)).findPageWithCustomerAndProducts(0L, 50);
+        verify(orderRepository, never()).findAll();
+    }
+
+    @Test
+    void shouldReferenceCustomerAndProductsByIdByDefaultTest() {
+        when(orderRepository.findByOrderIdGreaterThanOrderByOrderIdAsc(0L, Limit.of(50))).thenReturn(List.of(order));
+        when(orderRepository.findLinesByOrderIdIn(List.of(orderId)))
+                .thenReturn(List.of(new OrderLine(orderId, productId), new OrderLine(orderId, 3L)));
+
+        OrderPage result = orderService.getOrders(0L, 50, FieldSet.ALL, OrderExpansion.NONE);
+
+        assertEquals(customerId, result.data().get(0).customerId());
+        assertEquals(List.of(productId, 3L), result.data().get(0).productIds());
+        assertNull(result.data().get(0).customer());
+        assertNull(result.data().get(0).products());
+        assertNull(result.included());
+        verify(orderRepository, never()).findPageWithCustomerAndProducts(any(), anyInt());
+    }
+
+    @Test
+    void shouldReferenceNoProductIdsForOrderWithoutLinesTest() {
+        Order emptyOrder = new Order(2L, customer, List.of(), null, "Main St", 0.0, "Pending", 0L);
+        when(orderRepository.findByOrderIdGreaterThanOrderByOrderIdAsc(0L, Limit.of(50)))
+                .thenReturn(List.of(order, emptyOrder));
+        when(orderRepository.findLinesByOrderIdIn(List.of(orderId, 2L)))
+                .thenReturn(List.of(new OrderLine(orderId, productId)));
+
+        OrderPage result = orderService.getOrders(0L, 50, FieldSet.ALL, OrderExpansion.NONE);
+
+        assertEquals(List.of(productId), result.data().get(0).productIds());
+        assertEquals(List.of(), result.data().get(1).productIds());
+    }
+
+    @Test
+    void shouldSideLoadEachReferencedEntityOnceTest() {
+        Order secondOrder = new Order(2L, customer, List.of(product), null, "Main St", 100.0, "Pending", 0L);
+        when(orderRepository.findPageWithCustomerAndProducts(0L, 50)).thenReturn(List.of(order, secondOrder));
+
+        OrderPage result = orderService.getOrders(0L, 50, FieldSet.ALL, OrderExpansion.of(null, "customer,products"));
+
+        assertEquals(List.of(productId), result.data().get(1).productIds());
+        assertEquals(List.of(customerId), result.included().customers().stream()
+                .map(OrderSummary.CustomerSummary::customerId).toList());
+        assertEquals(List.of(new OrderSummary.ProductSummary(productId, "Product A", null, 100.0, 10)),
+                result.included().products());
+        verify(orderRepository, never()).findLinesByOrderIdIn(any());
+    }
+
+    @Test
+    void shouldSkipJoinsForOrdersPageWithoutCustomerOrProductsTest() {
+        when(orderRepository.findByOrderIdGreaterThanOrderByOrderIdAsc(0L, Limit.of(50))).thenReturn(List.of(order));
+
+        List<OrderSummary> result = orderService.getOrders(0L, 50, FieldSet.valueOf("orderId,orderStatus"),
+                OrderExpansion.FULL).data();
+
+        assertEquals(orderId, result.get(0).orderId());
+        assertNull(result.get(0).customer());
+        assertNull(result.get(0).products());
+        verify(orderRepository, never()).findPageWithCustomerAndProducts(any(), anyInt());
+        verify(orderRepository, never()).findLinesByOrderIdIn(any());
+    }
+
+    @Test
+    void shouldReturnOrderDetailWithProductsByIdTest() {
+        Product secondProduct = new Product();
+        secondProduct.setProductId(2L);
+        order.setProducts(List.of(secondProduct, product));
+        when(orderRepository.findWithCustomerAndProductsByOrderId(orderId)).thenReturn(Optional.of(order));
+
+        OrderDetail result = orderService.getOrderDetail(orderId, FieldSet.ALL);
+
+        assertEquals(orderId, result.orderId());
+        assertEquals(customerId, result.customer().customerId());
+        assertEquals(List.of(1L, 2L), result.products().stream().map(OrderDetail.ProductDetail::productId).toList());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenOrderDetailNotFoundTest() {
+        when(orderRepository.findWithCustomerAndProductsByOrderId(orderId)).thenReturn(Optional.empty());
+
+        Exception exception = assertThrows(OrderNotFoundException.class, () -> {
+            orderService.getOrderDetail(orderId, FieldSet.ALL);
+        });
+        assertEquals("Order with ID: 1 not found", exception.getMessage());
     }
 
     @Test
@@ -104,75 +242,274 @@ class OrderServiceTest {
     }
 
     @Test
-    void shouldReturnOrderAsJsonTest() throws Exception {
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-        when(objectMapper.writeValueAsString(order)).thenReturn(orderJson);
+    void shouldWriteOrderAsJsonTest() throws Exception {
+        byte[] json = orderJson.getBytes(StandardCharsets.UTF_8);
+        order.setVersion(1L);
+        customer.setVersion(2L);
+        product.setVersion(4L);
+        long version = orderService.getOrderVersion(OrderDetail.of(order));
+        when(orderRepository.findWithCustomerAndProductsByOrderId(orderId)).thenReturn(Optional.of(order));
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write(json);
+            return null;
+        }).when(orderDetailWriter).writeValue(any(OutputStream.class), eq(OrderDetail.of(order)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        orderService.writeOrderAsJson(orderId, version, JsonBytesCache.Target.identity(outputStream));
+
+        assertArrayEquals(json, outputStream.toByteArray());
+        assertArrayEquals(json, jsonCache.get(Order.class, orderId, version));
+        verify(orderRepository, times(1)).findWithCustomerAndProductsByOrderId(orderId);
+    }
 
-        String result = orderService.getOrderAsJson(orderId);
+    @Test
+    void shouldWriteCachedOrderJsonForCurrentVersionTest() throws Exception {
+        byte[] json = orderJson.getBytes(StandardCharsets.UTF_8);
+        jsonCache.put(Order.class, orderId, 7L, json);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
-        assertEquals(orderJson, result);
-        verify(orderRepository, times(1)).findById(orderId);
-        verify(objectMapper, times(1)).writeValueAsString(order);
+        orderService.writeOrderAsJson(orderId, 7L, JsonBytesCache.Target.identity(outputStream));
+
+        assertArrayEquals(json, outputStream.toByteArray());
+        verify(orderRepository, never()).findWithCustomerAndProductsByOrderId(orderId);
+        verify(orderDetailWriter, never()).writeValue(any(OutputStream.class), any());
+    }
+
+    @Test
+    void shouldStreamOrderJsonTooLargeToCacheTest() throws Exception {
+        byte[] json = new byte[32 * 1024];
+        when(orderRepository.findWithCustomerAndProductsByOrderId(orderId)).thenReturn(Optional.of(order));
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write(json);
+            return null;
+        }).when(orderDetailWriter).writeValue(any(OutputStream.class), eq(OrderDetail.of(order)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        orderService.writeOrderAsJson(orderId, 7L, JsonBytesCache.Target.identity(outputStream));
+
+        assertEquals(json.length, outputStream.size());
+        assertNull(jsonCache.get(Order.class, orderId, orderService.getOrderVersion(OrderDetail.of(order))));
     }
 
     @Test
     void shouldThrowExceptionWhenConvertingOrderObjectToJsonFailsTest() throws Exception {
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-        when(objectMapper.writeValueAsString(order)).thenThrow(new RuntimeException("Serialization error"));
+        when(orderRepository.findWithCustomerAndProductsByOrderId(orderId)).thenReturn(Optional.of(order));
+        doThrow(new JsonMappingException(null, "Serialization error"))
+                .when(orderDetailWriter).writeValue(any(OutputStream.class), eq(OrderDetail.of(order)));
 
         Exception exception = assertThrows(ConvertExceptionFromObject.class, () -> {
-            orderService.getOrderAsJson(orderId);
+            orderService.writeOrderAsJson(orderId, 0L, JsonBytesCache.Target.identity(new ByteArrayOutputStream()));
         });
         assertEquals("Error converting from Object", exception.getMessage());
-        verify(objectMapper, times(1)).writeValueAsString(order);
+    }
+
+    @Test
+    void shouldComputeSameOrderVersionFromRowsAndDetailTest() {
+        Product secondProduct = new Product();
+        secondProduct.setProductId(2L);
+        secondProduct.setVersion(5L);
+        product.setVersion(3L);
+        order.setVersion(1L);
+        customer.setVersion(2L);
+        order.setProducts(List.of(secondProduct, product));
+        when(orderRepository.findVersionRowsByOrderId(orderId))
+                .thenReturn(List.of(versionRow(order, product), versionRow(order, secondProduct)));
+
+        long version = orderService.getOrderVersion(orderId);
+
+        assertEquals(orderService.getOrderVersion(OrderDetail.of(order)), version);
+        product.setVersion(4L);
+        assertNotEquals(version, orderService.getOrderVersion(OrderDetail.of(order)));
+        order.setProducts(List.of(product));
+        product.setVersion(3L);
+        assertNotEquals(version, orderService.getOrderVersion(OrderDetail.of(order)));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenVersionOfMissingOrderRequestedTest() {
+        when(orderRepository.findVersionRowsByOrderId(orderId)).thenReturn(List.of());
+
+        Exception exception = assertThrows(OrderNotFoundException.class, () -> {
+            orderService.getOrderVersion(orderId);
+        });
+        assertEquals("Order with ID: 1 not found", exception.getMessage());
+        verify(orderRepository, never()).findById(orderId);
+    }
+
+    @Test
+    void shouldExportOrdersAsNdjsonTest() throws Exception {
+        Order secondOrder = new Order();
+        secondOrder.setOrderId(2L);
+        secondOrder.setCustomer(customer);
+        secondOrder.setProducts(List.of(product));
+        when(orderRepository.streamAllOrderByOrderId()).thenReturn(Stream.of(order, secondOrder));
+        OrderService exportingService = new OrderService(orderRepository, customerRepository, customerService,
+                productService, new ObjectMapper().findAndRegisterModules(), entityManager, jsonCache, jsonImporter);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        exportingService.exportOrders(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"orderId\":1,"));
+        assertTrue(lines[1].startsWith("{\"orderId\":2,"));
+        verify(orderRepository, times(1)).fetchProductsByOrderIdIn(List.of(orderId, 2L));
+        verify(orderRepository, never()).findAll();
     }
 
     @Test
     void shouldCreateOrderFromJsonTest() throws Exception {
-        when(objectMapper.readValue(orderJson, Order.class)).thenReturn(order);
+        InputStream json = new ByteArrayInputStream(orderJson.getBytes(StandardCharsets.UTF_8));
+        when(jsonImporter.<Order>read(eq(orderReader), eq(json), any())).thenReturn(JsonImport.single(order));
 
-        Order result = orderService.createOrderFromJson(orderJson);
+        JsonImport<Order> result = orderService.createOrdersFromJson(json);
 
-        assertEquals(order, result);
-        verify(objectMapper, times(1)).readValue(orderJson, Order.class);
+        assertEquals(order, result.value());
+        verify(orderRepository, never()).saveAll(any());
     }
 
     @Test
     void shouldThrowExceptionWhenConvertingStringToOrderObjectFailsTest() throws Exception {
-        when(objectMapper.readValue(orderJson, Order.class)).thenThrow(new RuntimeException("Deserialization error"));
+        InputStream json = new ByteArrayInputStream(orderJson.getBytes(StandardCharsets.UTF_8));
+        when(jsonImporter.read(eq(orderReader), eq(json), any())).thenThrow(new JsonParseException(null, "Deserialization error"));
 
         Exception exception = assertThrows(ConvertExceptionFromString.class, () -> {
-            orderService.createOrderFromJson(orderJson);
+            orderService.createOrdersFromJson(json);
         });
         assertEquals("Error converting from String", exception.getMessage());
-        verify(objectMapper, times(1)).readValue(orderJson, Order.class);
     }
 
     @Test
     void shouldCreateOrderTest() {
-        when(customerRepository.findById(customerId)).thenReturn(Optional.of(customer));
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(customerService.findCustomerById(customerId)).thenReturn(Optional.of(customer));
+        when(productService.reserveStock(Map.of(productId, 1))).thenReturn(Map.of(productId, product));
         when(orderRepository.save(order)).thenReturn(order);
 
         Order result = orderService.createOrder(order, customer, List.of(product));
 
         assertEquals(order, result);
-        assertEquals(9, product.getQuantityInStock()); // Проверка уменьшения остатков
-        verify(customerRepository, times(1)).findById(customerId);
-        verify(productRepository, times(1)).findById(productId);
-        verify(productService, times(1)).updateProduct(productId, product);
+        assertEquals(200.0, result.getTotalPrice());
+        assertEquals(List.of(product), result.getProducts());
+        verify(customerService, times(1)).findCustomerById(customerId);
+        verify(productService, times(1)).reserveStock(Map.of(productId, 1));
+        verify(productService, never()).updateProduct(any(), any());
         verify(orderRepository, times(1)).save(order);
     }
 
+    @Test
+    void shouldReserveRepeatedProductOnceWithSummedQuantityTest() {
+        Product requested = new Product();
+        requested.setProductId(productId);
+        when(customerService.findCustomerById(customerId)).thenReturn(Optional.of(customer));
+        when(productService.reserveStock(Map.of(productId, 3))).thenReturn(Map.of(productId, product));
+        when(orderRepository.save(order)).thenReturn(order);
+
+        Order result = orderService.createOrder(order, customer, List.of(requested, requested, requested));
+
+        assertEquals(400.0, result.getTotalPrice());
+        assertEquals(List.of(product, product, product), result.getProducts());
+        verify(productService, times(1)).reserveStock(Map.of(productId, 3));
+    }
+
+    @Test
+    void shouldRejectOrderWithProductWithoutIdBeforeReservingStockTest() {
+        when(customerService.findCustomerById(customerId)).thenReturn(Optional.of(customer));
+
+        Exception exception = assertThrows(InvalidOrderException.class, () -> {
+            orderService.createOrder(order, customer, List.of(product, new Product()));
+        });
+        assertEquals("Every product of an order needs a productId", exception.getMessage());
+        verify(productService, never()).reserveStock(any());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldNotSaveOrderWhenProductIsOutOfStockTest() {
+        when(customerService.findCustomerById(customerId)).thenReturn(Optional.of(customer));
+        when(productService.reserveStock(Map.of(productId, 1)))
+                .thenThrow(new ProductOutOfStockException("Product with ID: 1 is out of stock"));
+
+        Exception exception = assertThrows(ProductOutOfStockException.class, () -> {
+            orderService.createOrder(order, customer, List.of(product));
+        });
+        assertEquals("Product with ID: 1 is out of stock", exception.getMessage());
+        verify(orderRepository, never()).save(any());
+    }
+
     @Test
     void shouldThrowExceptionWhenCreatingOrderWithNonExistentCustomerTest() {
-        when(customerRepository.findById(customerId)).thenReturn(Optional.empty());
+        when(customerService.findCustomerById(customerId)).thenReturn(Optional.empty());
 
         Exception exception = assertThrows(CustomerNotFoundException.class, () -> {
             orderService.createOrder(order, customer, List.of(product));
         });
         assertEquals("Customer with ID: 1 not found", exception.getMessage());
-        verify(customerRepository, times(1)).findById(customerId);
+        verify(customerService, times(1)).findCustomerById(customerId);
+    }
+
+    @Test
+    void shouldCreateOrdersWithOneReservationForWholeBatchTest() {
+        Product secondProduct = new Product();
+        secondProduct.setProductId(2L);
+        secondProduct.setPrice(50.0);
+        Order secondOrder = new Order();
+        secondOrder.setOrderId(99L);
+        secondOrder.setCustomer(customer);
+        secondOrder.setProducts(List.of(product, secondProduct));
+        secondOrder.setTotalPrice(0.0);
+        List<Order> orders = List.of(order, secondOrder);
+        when(customerRepository.findAllById(Set.of(customerId))).thenReturn(List.of(customer));
+        when(productService.reserveStock(Map.of(productId, 2, 2L, 1)))
+                .thenReturn(Map.of(productId, product, 2L, secondProduct));
+        when(orderRepository.saveAll(orders)).thenReturn(orders);
+
+        List<Order> result = orderService.createOrders(orders);
+
+        assertEquals(orders, result);
+        assertEquals(200.0, order.getTotalPrice());
+        assertEquals(150.0, secondOrder.getTotalPrice());
+        assertNull(secondOrder.getOrderId());
+        verify(customerRepository, times(1)).findAllById(Set.of(customerId));
+        verify(productService, times(1)).reserveStock(Map.of(productId, 2, 2L, 1));
+        verify(orderRepository, times(1)).saveAll(orders);
+        verify(orderRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenBatchReferencesNonExistentCustomerTest() {
+        when(customerRepository.findAllById(Set.of(customerId))).thenReturn(List.of());
+
+        Exception exception = assertThrows(CustomerNotFoundException.class, () -> {
+            orderService.createOrders(List.of(order));
+        });
+        assertEquals("Customer with ID: 1 not found", exception.getMessage());
+        verify(productService, never()).reserveStock(any());
+        verify(orderRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void shouldRejectBatchWithOrderWithoutCustomerBeforeReservingStockTest() {
+        Order secondOrder = new Order();
+        secondOrder.setProducts(List.of(product));
+
+        Exception exception = assertThrows(InvalidOrderException.class, () -> {
+            orderService.createOrders(List.of(order, secondOrder));
+        });
+        assertEquals("Order [1] needs a customer with a customerId", exception.getMessage());
+        verify(customerRepository, never()).findAllById(any());
+        verify(productService, never()).reserveStock(any());
+        verify(orderRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void shouldCreateOrdersWithoutTotalPriceFromProductPricesTest() {
+        order.setTotalPrice(null);
+        when(customerRepository.findAllById(Set.of(customerId))).thenReturn(List.of(customer));
+        when(productService.reserveStock(Map.of(productId, 1))).thenReturn(Map.of(productId, product));
+
+        orderService.createOrders(List.of(order));
+
+        assertEquals(product.getPrice(), order.getTotalPrice());
     }
 
     @Test
@@ -196,4 +533,9 @@ class OrderServiceTest {
         assertEquals("Order with ID: 1 not found", exception.getMessage());
         verify(orderRepository, times(1)).existsById(orderId);
     }
+
+    private static OrderVersionRow versionRow(Order order, Product product) {
+        return new OrderVersionRow(order.getOrderId(), order.getVersion(), order.getCustomer().getCustomerId(),
+                order.getCustomer().getVersion(), product.getProductId(), product.getVersion());
+    }
 }
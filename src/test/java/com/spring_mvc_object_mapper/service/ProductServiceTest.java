@@ -1,26 +1,49 @@
 package com.spring_mvc_object_mapper.service;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.spring_mvc_object_mapper.entity.Order;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.spring_mvc_object_mapper.config.CacheConfig;
+import com.spring_mvc_object_mapper.dto.FieldSet;
 import com.spring_mvc_object_mapper.entity.Product;
 import com.spring_mvc_object_mapper.exception.ConvertExceptionFromObject;
+import com.spring_mvc_object_mapper.exception.ConvertExceptionFromString;
 import com.spring_mvc_object_mapper.exception.ProductNotFoundException;
+import com.spring_mvc_object_mapper.exception.ProductOutOfStockException;
+import com.spring_mvc_object_mapper.repository.EntityVersion;
 import com.spring_mvc_object_mapper.repository.OrderRepository;
 import com.spring_mvc_object_mapper.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-
-import java.util.ArrayList;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,16 +58,37 @@ class ProductServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
-    @InjectMocks
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache productCache;
+
+    private JsonBytesCache jsonCache;
+
+    @Mock
+    private ObjectReader productReader;
+
+    @Mock
+    private ObjectWriter productWriter;
+
+    @Mock
+    private JsonImporter jsonImporter;
+
     private ProductService productService;
 
     private Product product;
-    private Order order;
     private Long productId;
     private String productJson;
 
     @BeforeEach
     void setUp() {
+        when(objectMapper.readerFor(Product.class)).thenReturn(productReader);
+        when(objectMapper.writerFor(Product.class)).thenReturn(productWriter);
+        jsonCache = new JsonBytesCache(DataSize.ofKilobytes(64), DataSize.ofKilobytes(16));
+        productService = new ProductService(productRepository, objectMapper, orderRepository, cacheManager, jsonCache,
+                jsonImporter);
+
         productId = 1L;
 
         product = new Product();
@@ -54,22 +98,44 @@ class ProductServiceTest {
         product.setPrice(100.0);
         product.setQuantityInStock(10);
 
-        order = new Order();
-        order.setOrderId(1L);
-        order.setProducts(List.of(product));
-
         productJson = "{\"productId\":1,\"name\":\"Product A\",\"description\":\"Description of Product A\",\"price\":100.0,\"quantityInStock\":10}";
     }
 
     @Test
-    void shouldReturnAllProductsTest() {
-        when(productRepository.findAll()).thenReturn(List.of(product));
+    void shouldReturnProductsPageTest() {
+        when(productRepository.findByProductIdGreaterThanOrderByProductIdAsc(1L, Limit.of(2))).thenReturn(List.of(product));
 
-        List<Product> result = productService.getAllProducts();
+        List<Product> result = productService.getProducts(1L, 2, FieldSet.ALL);
 
         assertEquals(1, result.size());
         assertEquals(product, result.get(0));
-        verify(productRepository, times(1)).findAll();
+        verify(productRepository, times(1)).findByProductIdGreaterThanOrderByProductIdAsc(1L, Limit.of(2));
+        verify(productRepository, never()).findAll();
+    }
+
+    @Test
+    void shouldReadOnlySelectedColumnsForSparseProductsPageTest() {
+        FieldSet fields = FieldSet.valueOf("productId,price,quantityInStock");
+        when(productRepository.findPageWithColumns(1L, 2, Set.of("productId", "price", "quantityInStock")))
+                .thenReturn(List.of(product));
+
+        List<Product> result = productService.getProducts(1L, 2, fields);
+
+        assertEquals(List.of(product), result);
+        verify(productRepository, never()).findByProductIdGreaterThanOrderByProductIdAsc(any(), any());
+    }
+
+    @Test
+    void shouldFingerprintProductsPageFromIdsAndVersionsTest() {
+        when(productRepository.findVersionsByProductIdGreaterThan(0L, Limit.of(2)))
+                .thenReturn(List.of(new EntityVersion(1L, 0L), new EntityVersion(2L, 0L)),
+                        List.of(new EntityVersion(1L, 0L), new EntityVersion(2L, 1L)));
+
+        long before = productService.getProductsVersion(0L, 2);
+        long after = productService.getProductsVersion(0L, 2);
+
+        assertNotEquals(before, after);
+        verify(productRepository, never()).findByProductIdGreaterThanOrderByProductIdAsc(any(), any());
     }
 
     @Test
@@ -94,48 +160,97 @@ class ProductServiceTest {
     }
 
     @Test
-    void shouldReturnProductAsJsonTest() throws Exception {
+    void shouldWriteProductAsJsonTest() throws Exception {
+        byte[] json = productJson.getBytes(StandardCharsets.UTF_8);
+        product.setVersion(3L);
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-        when(objectMapper.writeValueAsString(product)).thenReturn(productJson);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write(json);
+            return null;
+        }).when(productWriter).writeValue(any(OutputStream.class), eq(product));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
-        String result = productService.getProductAsJson(productId);
+        productService.writeProductAsJson(productId, 3L, JsonBytesCache.Target.identity(outputStream));
 
-        assertEquals(productJson, result);
+        assertArrayEquals(json, outputStream.toByteArray());
+        assertArrayEquals(json, jsonCache.get(Product.class, productId, 3L));
         verify(productRepository, times(1)).findById(productId);
-        verify(objectMapper, times(1)).writeValueAsString(product);
+    }
+
+    @Test
+    void shouldWriteCachedProductJsonForCurrentVersionTest() throws Exception {
+        byte[] json = productJson.getBytes(StandardCharsets.UTF_8);
+        jsonCache.put(Product.class, productId, 3L, json);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        productService.writeProductAsJson(productId, 3L, JsonBytesCache.Target.identity(outputStream));
+
+        assertArrayEquals(json, outputStream.toByteArray());
+        verify(productRepository, never()).findById(productId);
+        verify(productWriter, never()).writeValue(any(OutputStream.class), any());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenVersionOfMissingProductRequestedTest() {
+        when(productRepository.findVersionByProductId(productId)).thenReturn(Optional.empty());
+
+        Exception exception = assertThrows(ProductNotFoundException.class, () -> {
+            productService.getProductVersion(productId);
+        });
+        assertEquals("Product with id 1 not found", exception.getMessage());
+        verify(productRepository, never()).findById(productId);
     }
 
     @Test
     void shouldThrowExceptionWhenConvertingProductToJsonFailsTest() throws Exception {
         when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-        when(objectMapper.writeValueAsString(product)).thenThrow(new RuntimeException("Serialization error"));
+        doThrow(new JsonMappingException(null, "Serialization error"))
+                .when(productWriter).writeValue(any(OutputStream.class), eq(product));
 
         Exception exception = assertThrows(ConvertExceptionFromObject.class, () -> {
-            productService.getProductAsJson(productId);
+            productService.writeProductAsJson(productId, 0L, JsonBytesCache.Target.identity(new ByteArrayOutputStream()));
         });
         assertEquals("Error converting product from object", exception.getMessage());
-        verify(objectMapper, times(1)).writeValueAsString(product);
+        assertNull(jsonCache.get(Product.class, productId, 0L));
     }
 
     @Test
     void shouldCreateProductFromJsonTest() throws Exception {
-        when(objectMapper.readValue(productJson, Product.class)).thenReturn(product);
+        InputStream json = new ByteArrayInputStream(productJson.getBytes(StandardCharsets.UTF_8));
+        when(jsonImporter.<Product>read(eq(productReader), eq(json), any())).thenReturn(JsonImport.single(product));
 
-        Product result = productService.createProductFromJson(productJson);
+        JsonImport<Product> result = productService.createProductsFromJson(json);
 
-        assertEquals(product, result);
-        verify(objectMapper, times(1)).readValue(productJson, Product.class);
+        assertEquals(product, result.value());
+        verify(productRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void shouldSaveBulkProductsFromJsonAsNewProductsTest() throws Exception {
+        InputStream json = new ByteArrayInputStream(productJson.getBytes(StandardCharsets.UTF_8));
+        when(jsonImporter.<Product>read(eq(productReader), eq(json), any())).thenAnswer(invocation -> {
+            Consumer<List<Product>> saver = invocation.getArgument(2);
+            saver.accept(List.of(product));
+            return JsonImport.bulk(1);
+        });
+
+        JsonImport<Product> result = productService.createProductsFromJson(json);
+
+        assertTrue(result.isBulk());
+        assertEquals(1, result.savedCount());
+        assertNull(product.getProductId());
+        verify(productRepository, times(1)).saveAll(List.of(product));
     }
 
     @Test
     void shouldThrowExceptionWhenConvertingJsonToProductFailsTest() throws Exception {
-        when(objectMapper.readValue(productJson, Product.class)).thenThrow(new RuntimeException("Deserialization error"));
+        InputStream json = new ByteArrayInputStream(productJson.getBytes(StandardCharsets.UTF_8));
+        when(jsonImporter.read(eq(productReader), eq(json), any())).thenThrow(new JsonParseException(null, "Deserialization error"));
 
-        Exception exception = assertThrows(RuntimeException.class, () -> {
-            productService.createProductFromJson(productJson);
+        Exception exception = assertThrows(ConvertExceptionFromString.class, () -> {
+            productService.createProductsFromJson(json);
         });
         assertEquals("Error creating product from string", exception.getMessage());
-        verify(objectMapper, times(1)).readValue(productJson, Product.class);
     }
 
     @Test
@@ -181,28 +296,73 @@ class ProductServiceTest {
         verify(productRepository, times(1)).existsById(productId);
     }
 
+    @Test
+    void shouldReserveStockWithConditionalUpdatesAndOneLookupTest() {
+        Product secondProduct = new Product();
+        secondProduct.setProductId(2L);
+        Map<Long, Integer> quantities = Map.of(productId, 2, 2L, 1);
+        when(productRepository.decrementStock(productId, 2)).thenReturn(1);
+        when(productRepository.decrementStock(2L, 1)).thenReturn(1);
+        when(productRepository.findAllById(quantities.keySet())).thenReturn(List.of(product, secondProduct));
+        when(cacheManager.getCache(CacheConfig.PRODUCTS)).thenReturn(productCache);
+
+        Map<Long, Product> result = productService.reserveStock(quantities);
+
+        assertEquals(Map.of(productId, product, 2L, secondProduct), result);
+        verify(productCache, times(1)).put(productId, product);
+        verify(productCache, times(1)).put(2L, secondProduct);
+        InOrder inOrder = inOrder(productRepository);
+        inOrder.verify(productRepository).decrementStock(productId, 2);
+        inOrder.verify(productRepository).decrementStock(2L, 1);
+        inOrder.verify(productRepository).findAllById(quantities.keySet());
+        verify(productRepository, never()).findById(any());
+        verify(productRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenReservingMoreThanInStockTest() {
+        when(productRepository.decrementStock(productId, 11)).thenReturn(0);
+        when(productRepository.findAllById(Set.of(productId))).thenReturn(List.of(product));
+
+        Exception exception = assertThrows(ProductOutOfStockException.class, () -> {
+            productService.reserveStock(Map.of(productId, 11));
+        });
+        assertEquals("Product with ID: 1 is out of stock", exception.getMessage());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenReservingNonExistentProductTest() {
+        when(productRepository.decrementStock(productId, 1)).thenReturn(0);
+        when(productRepository.findAllById(Set.of(productId))).thenReturn(List.of());
+
+        Exception exception = assertThrows(ProductNotFoundException.class, () -> {
+            productService.reserveStock(Map.of(productId, 1));
+        });
+        assertEquals("Product with ID: 1 not found", exception.getMessage());
+    }
+
     @Test
     void shouldDeleteProductTest() {
-        order.setProducts(new ArrayList<>(List.of(product))); // Сделать список изменяемым
-        Mockito.when(productRepository.findById(productId)).thenReturn(Optional.of(product));
-        Mockito.when(orderRepository.findAll()).thenReturn(List.of(order));
+        Mockito.when(orderRepository.deleteOrderLinesByProductId(productId)).thenReturn(1);
+        Mockito.when(productRepository.deleteByProductId(productId)).thenReturn(1);
 
         productService.deleteProduct(productId);
 
-        Mockito.verify(productRepository, Mockito.times(2)).findById(productId);
-        Mockito.verify(orderRepository, Mockito.times(1)).findAll();
-        Mockito.verify(orderRepository, Mockito.times(1)).save(order);
-        Mockito.verify(productRepository, Mockito.times(1)).delete(product);
+        Mockito.verify(orderRepository, Mockito.times(1)).deleteOrderLinesByProductId(productId);
+        Mockito.verify(productRepository, Mockito.times(1)).deleteByProductId(productId);
+        Mockito.verify(orderRepository, Mockito.never()).findAll();
+        Mockito.verify(orderRepository, Mockito.never()).save(any());
+        Mockito.verify(productRepository, Mockito.never()).findById(productId);
     }
 
     @Test
     void shouldThrowExceptionWhenDeletingNonExistentProductTest() {
-        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+        when(productRepository.deleteByProductId(productId)).thenReturn(0);
 
         Exception exception = assertThrows(ProductNotFoundException.class, () -> {
             productService.deleteProduct(productId);
         });
         assertEquals("Product with id 1 not found", exception.getMessage());
-        verify(productRepository, times(1)).findById(productId);
+        verify(productRepository, times(1)).deleteByProductId(productId);
     }
 }
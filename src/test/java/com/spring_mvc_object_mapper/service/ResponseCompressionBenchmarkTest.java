@@ -0,0 +1,138 @@
+package com.spring_mvc_object_mapper.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.spring_mvc_object_mapper.entity.Customer;
+import com.spring_mvc_object_mapper.entity.Order;
+import com.spring_mvc_object_mapper.entity.Product;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Gzips typical response bodies at the fastest, the default and the best {@code Deflater} level and prints the
+ * compressed size and the CPU time each costs: one product and one order with {@value #PRODUCTS_PER_ORDER} products
+ * as served by the {@code /json} endpoints, and a page of {@value #PAGE_SIZE} products and of {@value #PAGE_SIZE}
+ * orders as served by the list endpoints. Every body must decompress to the JSON it was compressed from.
+ */
+@Tag("benchmark")
+class ResponseCompressionBenchmarkTest {
+
+    private static final int PRODUCTS_PER_ORDER = 60;
+    private static final int PAGE_SIZE = 100;
+    private static final int[] LEVELS = {1, 6, 9};
+    private static final long WARMUP_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final long MEASURE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static volatile Object sink;
+
+    @Test
+    void gzipLevelsRoundTripAndReportSizeAndCpuTime() throws Exception {
+        ObjectMapper mapper = new Jackson2ObjectMapperBuilder()
+                .modulesToInstall(new JavaTimeModule())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        List<Product> catalog = products(PAGE_SIZE);
+        List<Order> orders = new ArrayList<>();
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            orders.add(order(id, catalog.subList(0, 3)));
+        }
+        Map<String, byte[]> payloads = new LinkedHashMap<>();
+        payloads.put("product", mapper.writeValueAsBytes(catalog.get(0)));
+        payloads.put("order", mapper.writeValueAsBytes(order(1L, catalog.subList(0, PRODUCTS_PER_ORDER))));
+        payloads.put("product page", mapper.writeValueAsBytes(catalog));
+        payloads.put("order page", mapper.writeValueAsBytes(orders));
+
+        for (Map.Entry<String, byte[]> payload : payloads.entrySet()) {
+            byte[] json = payload.getValue();
+            System.out.printf("%-12s %,9d bytes%n", payload.getKey(), json.length);
+            for (int level : LEVELS) {
+                byte[] gzip = Gzip.compress(json, level);
+                assertArrayEquals(json, gunzip(gzip));
+                if (json.length >= 2_048) {
+                    assertTrue(gzip.length < json.length / 3, payload.getKey() + " level " + level + " is " + gzip.length + " bytes");
+                }
+                long nanosPerOperation = nanosPerOperation(() -> Gzip.compress(json, level));
+                System.out.printf("  gzip %d %,9d bytes (%3d%%) %,10d ns/op %,7d MB/s%n", level, gzip.length,
+                        100 * gzip.length / json.length, nanosPerOperation,
+                        json.length * TimeUnit.SECONDS.toNanos(1) / nanosPerOperation / 1_000_000);
+            }
+        }
+    }
+
+    private static byte[] gunzip(byte[] gzip) throws Exception {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static long nanosPerOperation(Operation operation) {
+        run(operation, WARMUP_NANOS);
+        return MEASURE_NANOS / run(operation, MEASURE_NANOS);
+    }
+
+    private static long run(Operation operation, long durationNanos) {
+        long operations = 0;
+        long deadline = System.nanoTime() + durationNanos;
+        while (System.nanoTime() < deadline) {
+            sink = operation.run();
+            operations++;
+        }
+        return operations;
+    }
+
+    private static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            Product product = new Product();
+            product.setProductId(id);
+            product.setName("Product " + id);
+            product.setDescription("This is a test product");
+            product.setPrice(10.0 + id);
+            product.setQuantityInStock(100);
+            product.setVersion(id % 3);
+            products.add(product);
+        }
+        return products;
+    }
+
+    private static Order order(long orderId, List<Product> products) {
+        Customer customer = new Customer();
+        customer.setCustomerId(orderId);
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setEmail("johndoe" + orderId + "@example.com");
+        customer.setContactNumber("1234567890");
+        customer.setVersion(0L);
+
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setCustomer(customer);
+        order.setProducts(products);
+        order.setOrderDate(LocalDate.of(2024, 1, 1));
+        order.setShippingAddress("123 Main St, Anytown USA");
+        order.setTotalPrice(products.stream().mapToDouble(Product::getPrice).sum());
+        order.setOrderStatus("Pending");
+        order.setVersion(0L);
+        return order;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        Object run();
+    }
+}
@@ -0,0 +1,176 @@
+package com.spring_mvc_object_mapper.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.spring_mvc_object_mapper.config.CacheConfig;
+import com.spring_mvc_object_mapper.entity.Customer;
+import com.spring_mvc_object_mapper.entity.Product;
+import com.spring_mvc_object_mapper.repository.CustomerRepository;
+import com.spring_mvc_object_mapper.repository.OrderRepository;
+import com.spring_mvc_object_mapper.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig
+@TestPropertySource(properties = "spring.cache.caffeine.spec=maximumSize=100,recordStats")
+class ServiceCachingTest {
+
+    @Configuration
+    @Import({CacheConfig.class, ProductService.class, CustomerService.class})
+    static class Config {
+    }
+
+    @MockitoBean
+    private ProductRepository productRepository;
+
+    @MockitoBean
+    private CustomerRepository customerRepository;
+
+    @MockitoBean
+    private OrderRepository orderRepository;
+
+    @MockitoBean
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private JsonBytesCache jsonCache;
+
+    @MockitoBean
+    private JsonImporter jsonImporter;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Product product;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        productId = 1L;
+
+        product = new Product();
+        product.setProductId(productId);
+        product.setName("Product A");
+        product.setPrice(100.0);
+        product.setQuantityInStock(10);
+    }
+
+    @Test
+    void shouldServeRepeatedProductLookupsFromCacheTest() {
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        CacheStats before = stats(CacheConfig.PRODUCTS);
+
+        productService.getProductById(productId);
+        Product result = productService.getProductById(productId);
+
+        assertEquals(product, result);
+        assertNotSame(product, result);
+        verify(productRepository, times(1)).findById(productId);
+        CacheStats delta = stats(CacheConfig.PRODUCTS).minus(before);
+        assertEquals(1, delta.hitCount());
+        assertEquals(1, delta.missCount());
+        result.setQuantityInStock(0);
+        assertEquals(10, productService.getProductById(productId).getQuantityInStock());
+    }
+
+    @Test
+    void shouldReplaceCachedProductOnUpdateTest() {
+        Product updatedDetails = new Product();
+        updatedDetails.setName("Updated Product A");
+        updatedDetails.setPrice(150.0);
+        updatedDetails.setQuantityInStock(20);
+        when(productRepository.existsById(productId)).thenReturn(true);
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.save(product)).thenReturn(product);
+
+        productService.updateProduct(productId, updatedDetails);
+        Product result = productService.getProductById(productId);
+
+        assertEquals("Updated Product A", result.getName());
+        verify(productRepository, times(1)).findById(productId);
+    }
+
+    @Test
+    void shouldEvictCachedProductOnDeleteTest() {
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.deleteByProductId(productId)).thenReturn(1);
+
+        productService.getProductById(productId);
+        productService.deleteProduct(productId);
+        productService.getProductById(productId);
+
+        verify(productRepository, times(2)).findById(productId);
+    }
+
+    @Test
+    void shouldCacheProductsWithReservedStockTest() {
+        when(productRepository.decrementStock(productId, 3)).thenReturn(1);
+        when(productRepository.findAllById(Set.of(productId))).thenReturn(List.of(product));
+
+        productService.reserveStock(Map.of(productId, 3));
+        product.setQuantityInStock(-1);
+        Product result = productService.getProductById(productId);
+
+        assertEquals(10, result.getQuantityInStock());
+        assertNotSame(product, result);
+        verify(productRepository, never()).findById(productId);
+    }
+
+    @Test
+    void shouldNotCacheMissingCustomerTest() {
+        Customer customer = new Customer();
+        customer.setCustomerId(2L);
+        when(customerRepository.findById(2L)).thenReturn(Optional.empty(), Optional.of(customer));
+
+        assertTrue(customerService.findCustomerById(2L).isEmpty());
+        assertEquals(customer, customerService.getCustomerById(2L));
+        assertEquals(customer, customerService.findCustomerById(2L).orElseThrow());
+
+        verify(customerRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    void shouldEvictCachedCustomerOnDeleteTest() {
+        Customer customer = new Customer();
+        customer.setCustomerId(2L);
+        when(customerRepository.findById(2L)).thenReturn(Optional.of(customer));
+        when(customerRepository.existsById(2L)).thenReturn(true);
+
+        customerService.getCustomerById(2L);
+        customerService.deleteCustomer(2L);
+        customerService.getCustomerById(2L);
+
+        verify(customerRepository, times(3)).findById(2L);
+    }
+
+    private CacheStats stats(String cacheName) {
+        TransactionAwareCacheDecorator cache = (TransactionAwareCacheDecorator) cacheManager.getCache(cacheName);
+        return ((CaffeineCache) cache.getTargetCache()).getNativeCache().stats();
+    }
+}
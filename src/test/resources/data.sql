@@ -1,15 +1,19 @@
-INSERT INTO customers (first_name, last_name, email, contact_number)
-VALUES ('John', 'Doe', 'johndoe@example.com', '1234567890');
+INSERT INTO customers (customer_id, first_name, last_name, email, contact_number)
+VALUES (1, 'John', 'Doe', 'johndoe@example.com', '1234567890');
 
-INSERT INTO products (name, description, price, quantity_in_stock)
-VALUES ('Product 1', 'This is a test product', 10.00, 100);
-INSERT INTO products (name, description, price, quantity_in_stock)
-VALUES ('Product 2', 'This is a test product', 10.00, 100);
-INSERT INTO products (name, description, price, quantity_in_stock)
-VALUES ('Product 3', 'This is a test product', 10.00, 100);
+INSERT INTO products (product_id, name, description, price, quantity_in_stock)
+VALUES (1, 'Product 1', 'This is a test product', 10.00, 100);
+INSERT INTO products (product_id, name, description, price, quantity_in_stock)
+VALUES (2, 'Product 2', 'This is a test product', 10.00, 100);
+INSERT INTO products (product_id, name, description, price, quantity_in_stock)
+VALUES (3, 'Product 3', 'This is a test product', 10.00, 100);
 
-INSERT INTO orders (order_date, order_status, shipping_address, total_price, customer_id)
-VALUES ('2021-01-01', 'Pending', '123 Main St, Anytown USA', 30.00, 1);
+INSERT INTO orders (order_id, order_date, order_status, shipping_address, total_price, customer_id)
+VALUES (1, '2021-01-01', 'Pending', '123 Main St, Anytown USA', 30.00, 1);
 
 INSERT INTO orders_products (order_id, product_id) VALUES (1, 1);
-INSERT INTO orders_products (order_id, product_id) VALUES (1, 2);
\ No newline at end of file
+INSERT INTO orders_products (order_id, product_id) VALUES (1, 2);
+
+ALTER SEQUENCE customers_seq RESTART WITH 2;
+ALTER SEQUENCE products_seq RESTART WITH 4;
+ALTER SEQUENCE orders_seq RESTART WITH 2;
\ No newline at end of file
@@ -11,3 +11,6 @@ CREATE TABLE IF NOT EXISTS orders (order_id SERIAL PRIMARY KEY, order_date DATE,
 CREATE TABLE IF NOT EXISTS orders_products (order_id int , product_id int, FOREIGN KEY (product_id) REFERENCES products(product_id),
     FOREIGN KEY (order_id) REFERENCES orders(order_id));
 
+CREATE SEQUENCE IF NOT EXISTS customers_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS products_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS orders_seq START WITH 1 INCREMENT BY 50;
\ No newline at end of file